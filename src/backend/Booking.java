@@ -1,28 +1,65 @@
-
 package com.weddingvendor.backend;
 
+import com.google.gson.annotations.JsonAdapter;
+
 /**
- * Represents a booking in the Wedding Vendor system
+ * Represents a booking in the Wedding Vendor system.
+ * Fields are held in the compact forms of BookingEncoding: dictionary codes for status,
+ * payment status and event type, an epoch day for the service date, epoch millis for the
+ * timestamps and shared strings for ids and names. The getters and setters and the JSON
+ * form still use the original String fields.
  */
+@JsonAdapter(BookingJsonAdapter.class)
 public class Booking {
+    // Slots of the overflow array, for values that have no compact form
+    private static final int SERVICE_DATE = 0;
+    private static final int CREATED_AT = 1;
+    private static final int UPDATED_AT = 2;
+    private static final int STATUS = 3;
+    private static final int PAYMENT_STATUS = 4;
+    private static final int EVENT_TYPE = 5;
+    
     private String id;
     private String userId;
     private String userName;
     private String vendorId;
     private String vendorName;
     private String serviceName;
-    private String eventType;
-    private String serviceDate;
-    private double amount;
-    private String status;
-    private String paymentStatus;
     private String notes;
-    private String createdAt;
-    private String updatedAt;
+    private double amount;
+    // The codes are volatile and each setter writes the overflow slot before the code,
+    // so a reader that sees an overflow code also sees its value. Slots are never cleared,
+    // so a reader still holding the previous code gets the previous value, not null.
+    private volatile long createdAt = BookingEncoding.NO_TIME;
+    private volatile long updatedAt = BookingEncoding.NO_TIME;
+    private volatile int serviceDate = BookingEncoding.NO_DAY;
+    private volatile byte eventType;
+    private volatile byte status;
+    private volatile byte paymentStatus;
+    private String[] overflow;
     
     // Default constructor
     public Booking() {}
     
+    // Copy constructor
+    public Booking(Booking other) {
+        this.id = other.id;
+        this.userId = other.userId;
+        this.userName = other.userName;
+        this.vendorId = other.vendorId;
+        this.vendorName = other.vendorName;
+        this.serviceName = other.serviceName;
+        this.notes = other.notes;
+        this.amount = other.amount;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.serviceDate = other.serviceDate;
+        this.eventType = other.eventType;
+        this.status = other.status;
+        this.paymentStatus = other.paymentStatus;
+        this.overflow = other.overflow != null ? other.overflow.clone() : null;
+    }
+    
     // Getters and setters
     public String getId() {
         return id;
@@ -37,7 +74,7 @@ public class Booking {
     }
     
     public void setUserId(String userId) {
-        this.userId = userId;
+        this.userId = BookingEncoding.canonical(userId);
     }
     
     public String getUserName() {
@@ -45,7 +82,7 @@ public class Booking {
     }
     
     public void setUserName(String userName) {
-        this.userName = userName;
+        this.userName = BookingEncoding.canonical(userName);
     }
     
     public String getVendorId() {
@@ -53,7 +90,7 @@ public class Booking {
     }
     
     public void setVendorId(String vendorId) {
-        this.vendorId = vendorId;
+        this.vendorId = BookingEncoding.canonical(vendorId);
     }
     
     public String getVendorName() {
@@ -61,7 +98,7 @@ public class Booking {
     }
     
     public void setVendorName(String vendorName) {
-        this.vendorName = vendorName;
+        this.vendorName = BookingEncoding.canonical(vendorName);
     }
     
     public String getServiceName() {
@@ -69,23 +106,27 @@ public class Booking {
     }
     
     public void setServiceName(String serviceName) {
-        this.serviceName = serviceName;
+        this.serviceName = BookingEncoding.canonical(serviceName);
     }
     
     public String getEventType() {
-        return eventType;
+        return decode(BookingEncoding.EVENT_TYPE, eventType, EVENT_TYPE);
     }
     
     public void setEventType(String eventType) {
-        this.eventType = eventType;
+        this.eventType = encode(BookingEncoding.EVENT_TYPE, eventType, EVENT_TYPE);
     }
     
     public String getServiceDate() {
-        return serviceDate;
+        return serviceDate == BookingEncoding.OVERFLOW_DAY ? overflow[SERVICE_DATE] : BookingEncoding.decodeDay(serviceDate);
     }
     
     public void setServiceDate(String serviceDate) {
-        this.serviceDate = serviceDate;
+        int day = BookingEncoding.encodeDay(serviceDate);
+        if (day == BookingEncoding.OVERFLOW_DAY) {
+            setOverflow(SERVICE_DATE, serviceDate);
+        }
+        this.serviceDate = day;
     }
     
     public double getAmount() {
@@ -97,19 +138,19 @@ public class Booking {
     }
     
     public String getStatus() {
-        return status;
+        return decode(BookingEncoding.STATUS, status, STATUS);
     }
     
     public void setStatus(String status) {
-        this.status = status;
+        this.status = encode(BookingEncoding.STATUS, status, STATUS);
     }
     
     public String getPaymentStatus() {
-        return paymentStatus;
+        return decode(BookingEncoding.PAYMENT_STATUS, paymentStatus, PAYMENT_STATUS);
     }
     
     public void setPaymentStatus(String paymentStatus) {
-        this.paymentStatus = paymentStatus;
+        this.paymentStatus = encode(BookingEncoding.PAYMENT_STATUS, paymentStatus, PAYMENT_STATUS);
     }
     
     public String getNotes() {
@@ -121,18 +162,73 @@ public class Booking {
     }
     
     public String getCreatedAt() {
-        return createdAt;
+        return createdAt == BookingEncoding.OVERFLOW_TIME ? overflow[CREATED_AT] : BookingEncoding.decodeTime(createdAt);
     }
     
     public void setCreatedAt(String createdAt) {
-        this.createdAt = createdAt;
+        long time = BookingEncoding.encodeTime(createdAt);
+        if (time == BookingEncoding.OVERFLOW_TIME) {
+            setOverflow(CREATED_AT, createdAt);
+        }
+        this.createdAt = time;
     }
     
     public String getUpdatedAt() {
-        return updatedAt;
+        return updatedAt == BookingEncoding.OVERFLOW_TIME ? overflow[UPDATED_AT] : BookingEncoding.decodeTime(updatedAt);
     }
     
     public void setUpdatedAt(String updatedAt) {
-        this.updatedAt = updatedAt;
+        long time = BookingEncoding.encodeTime(updatedAt);
+        if (time == BookingEncoding.OVERFLOW_TIME) {
+            setOverflow(UPDATED_AT, updatedAt);
+        }
+        this.updatedAt = time;
+    }
+    
+    /**
+     * The service date as an epoch day without formatting it, or null if there is no valid one
+     */
+    Long serviceEpochDay() {
+        if (serviceDate == BookingEncoding.NO_DAY) {
+            return null;
+        }
+        return serviceDate != BookingEncoding.OVERFLOW_DAY ? (long) serviceDate : BookingCalendar.epochDay(overflow[SERVICE_DATE]);
+    }
+    
+    /**
+     * createdAt as epoch millis without formatting it; Long.MIN_VALUE if missing or unparsable
+     */
+    long createdAtMillis() {
+        if (createdAt != BookingEncoding.OVERFLOW_TIME) {
+            return createdAt;
+        }
+        return BookingEncoding.parseTimestamp(overflow[CREATED_AT]);
+    }
+    
+    private String decode(BookingEncoding.Dictionary dictionary, byte code, int slot) {
+        return code == BookingEncoding.OVERFLOW_CODE ? overflow[slot] : dictionary.decode(code);
+    }
+    
+    /**
+     * The code for a value, with its overflow slot already written when it has no code;
+     * the caller publishes the code
+     */
+    private byte encode(BookingEncoding.Dictionary dictionary, String value, int slot) {
+        byte code = dictionary.encode(value);
+        if (code == BookingEncoding.OVERFLOW_CODE) {
+            setOverflow(slot, value);
+        }
+        return code;
+    }
+    
+    private void setOverflow(int slot, String value) {
+        String[] slots = overflow;
+        if (slots == null) {
+            slots = new String[EVENT_TYPE + 1];
+            slots[slot] = value;
+            overflow = slots;
+        } else {
+            slots[slot] = value;
+        }
     }
 }
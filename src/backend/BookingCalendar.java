@@ -0,0 +1,130 @@
+package com.weddingvendor.backend;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Per-vendor calendar of the days taken by active bookings.
+ * Each vendor has a sorted map of epoch day -> ids of active bookings on that day, so a
+ * conflict check is one O(log n) lookup and the booked days of a date range come from a
+ * sub-map instead of a scan of the vendor's booking history. Writers must hold the
+ * vendor's lock in BookingSystem; readers need no lock.
+ */
+public class BookingCalendar {
+    private final Map<String, NavigableMap<Long, Set<String>>> calendars = new ConcurrentHashMap<>();
+    
+    /**
+     * Whether a booking holds its day; cancelled, rejected and declined bookings free it again
+     */
+    public static boolean isActive(Booking booking) {
+        return isActive(booking.getStatus());
+    }
+    
+    /**
+     * Whether a booking with the given status holds its day
+     */
+    public static boolean isActive(String status) {
+        if (status == null) {
+            return true;
+        }
+        switch (status.toLowerCase()) {
+            case "cancelled":
+            case "canceled":
+            case "rejected":
+            case "declined":
+                return false;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Epoch day of a service date such as "2023-10-15" or "2023-10-15T14:00", or null if it cannot be parsed
+     */
+    public static Long epochDay(String serviceDate) {
+        if (serviceDate == null || serviceDate.length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(serviceDate.substring(0, 10)).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Record the day of an active booking
+     */
+    public void add(Booking booking) {
+        Long day = booking.serviceEpochDay();
+        if (day == null || booking.getVendorId() == null || !isActive(booking)) {
+            return;
+        }
+        calendars.computeIfAbsent(booking.getVendorId(), k -> new ConcurrentSkipListMap<>())
+            .computeIfAbsent(day, k -> ConcurrentHashMap.newKeySet())
+            .add(booking.getId());
+    }
+    
+    /**
+     * Release the day of a booking
+     */
+    public void remove(Booking booking) {
+        Long day = booking.serviceEpochDay();
+        if (day == null || booking.getVendorId() == null) {
+            return;
+        }
+        NavigableMap<Long, Set<String>> calendar = calendars.get(booking.getVendorId());
+        if (calendar != null) {
+            calendar.computeIfPresent(day, (k, ids) -> {
+                ids.remove(booking.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+    
+    /**
+     * Id of an active booking other than the given one on the vendor's day, or null if the day is free
+     */
+    public String conflict(String vendorId, long epochDay, String excludingBookingId) {
+        NavigableMap<Long, Set<String>> calendar = vendorId != null ? calendars.get(vendorId) : null;
+        Set<String> ids = calendar != null ? calendar.get(epochDay) : null;
+        if (ids != null) {
+            for (String id : ids) {
+                if (!id.equals(excludingBookingId)) {
+                    return id;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Days in [from, to] without an active booking for the vendor, in order
+     */
+    public List<LocalDate> freeDays(String vendorId, LocalDate from, LocalDate to) {
+        List<LocalDate> free = new ArrayList<>();
+        NavigableMap<Long, Set<String>> calendar = calendars.get(vendorId);
+        Iterator<Long> booked = calendar != null
+            ? calendar.subMap(from.toEpochDay(), true, to.toEpochDay(), true).keySet().iterator()
+            : null;
+        Long nextBooked = booked != null && booked.hasNext() ? booked.next() : null;
+        
+        // Merge the booked days into the day range
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            if (nextBooked != null && nextBooked == day) {
+                nextBooked = booked.hasNext() ? booked.next() : null;
+            } else {
+                free.add(LocalDate.ofEpochDay(day));
+            }
+        }
+        return free;
+    }
+}
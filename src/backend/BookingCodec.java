@@ -0,0 +1,56 @@
+package com.weddingvendor.backend;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of Booking records for the booking journal and snapshot files
+ */
+public final class BookingCodec {
+    
+    private BookingCodec() {
+    }
+    
+    /**
+     * Write a booking; null fields are preserved, so partial bookings can carry updates
+     */
+    public static void writeBooking(DataOutput out, Booking booking) throws IOException {
+        VendorCodec.writeString(out, booking.getId());
+        VendorCodec.writeString(out, booking.getUserId());
+        VendorCodec.writeString(out, booking.getUserName());
+        VendorCodec.writeString(out, booking.getVendorId());
+        VendorCodec.writeString(out, booking.getVendorName());
+        VendorCodec.writeString(out, booking.getServiceName());
+        VendorCodec.writeString(out, booking.getEventType());
+        VendorCodec.writeString(out, booking.getServiceDate());
+        out.writeDouble(booking.getAmount());
+        VendorCodec.writeString(out, booking.getStatus());
+        VendorCodec.writeString(out, booking.getPaymentStatus());
+        VendorCodec.writeString(out, booking.getNotes());
+        VendorCodec.writeString(out, booking.getCreatedAt());
+        VendorCodec.writeString(out, booking.getUpdatedAt());
+    }
+    
+    /**
+     * Read a booking written by writeBooking
+     */
+    public static Booking readBooking(DataInput in) throws IOException {
+        Booking booking = new Booking();
+        booking.setId(VendorCodec.readString(in));
+        booking.setUserId(VendorCodec.readString(in));
+        booking.setUserName(VendorCodec.readString(in));
+        booking.setVendorId(VendorCodec.readString(in));
+        booking.setVendorName(VendorCodec.readString(in));
+        booking.setServiceName(VendorCodec.readString(in));
+        booking.setEventType(VendorCodec.readString(in));
+        booking.setServiceDate(VendorCodec.readString(in));
+        booking.setAmount(in.readDouble());
+        booking.setStatus(VendorCodec.readString(in));
+        booking.setPaymentStatus(VendorCodec.readString(in));
+        booking.setNotes(VendorCodec.readString(in));
+        booking.setCreatedAt(VendorCodec.readString(in));
+        booking.setUpdatedAt(VendorCodec.readString(in));
+        return booking;
+    }
+}
@@ -0,0 +1,42 @@
+package com.weddingvendor.backend;
+
+/**
+ * Thrown when a booking would take a day the vendor already has an active booking on,
+ * or would reuse the id of an existing booking
+ */
+public class BookingConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    
+    private final String vendorId;
+    private final String serviceDate;
+    private final String conflictingBookingId;
+    
+    public BookingConflictException(String vendorId, String serviceDate, String conflictingBookingId) {
+        super("Vendor " + vendorId + " is already booked on " + serviceDate + " (booking " + conflictingBookingId + ")");
+        this.vendorId = vendorId;
+        this.serviceDate = serviceDate;
+        this.conflictingBookingId = conflictingBookingId;
+    }
+    
+    /**
+     * A booking with the given id already exists
+     */
+    public BookingConflictException(String existingBookingId) {
+        super("Booking already exists: " + existingBookingId);
+        this.vendorId = null;
+        this.serviceDate = null;
+        this.conflictingBookingId = existingBookingId;
+    }
+    
+    public String getVendorId() {
+        return vendorId;
+    }
+    
+    public String getServiceDate() {
+        return serviceDate;
+    }
+    
+    public String getConflictingBookingId() {
+        return conflictingBookingId;
+    }
+}
@@ -0,0 +1,181 @@
+package com.weddingvendor.backend;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact encodings behind the Booking fields. Status and type fields become one-byte
+ * dictionary codes, service dates epoch days, timestamps epoch millis, and ids and names
+ * repeated across bookings share one canonical String. A value is only encoded when it
+ * decodes back to exactly the same string; anything else is kept verbatim, so the JSON
+ * and binary forms of a booking do not change.
+ */
+public final class BookingEncoding {
+    public static final Dictionary STATUS = new Dictionary("pending", "confirmed", "completed", "cancelled", "rejected");
+    public static final Dictionary PAYMENT_STATUS = new Dictionary("pending", "paid", "unpaid", "partial", "refunded", "failed");
+    public static final Dictionary EVENT_TYPE = new Dictionary("Wedding", "Engagement", "Reception", "Anniversary");
+    
+    static final byte NO_CODE = 0;
+    static final byte OVERFLOW_CODE = -1;
+    static final int NO_DAY = Integer.MIN_VALUE;
+    static final int OVERFLOW_DAY = Integer.MAX_VALUE;
+    static final long NO_TIME = Long.MIN_VALUE;
+    static final long OVERFLOW_TIME = Long.MAX_VALUE;
+    
+    // Direct-mapped pool of shared strings: a value goes in the slot its hash picks and
+    // replaces whatever was there, so the pool has a fixed size and evicts values that
+    // stop recurring. An evicted string stays alive only through the bookings using it.
+    private static final int CANONICAL_SLOTS = 1 << 16;
+    private static final String[] canonical = new String[CANONICAL_SLOTS];
+    // The format browsers send (Date.toISOString) and the one new bookings are stamped with
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+    
+    private BookingEncoding() {
+    }
+    
+    /**
+     * Maps the distinct values of one field to one-byte codes. Code 0 is null; the table
+     * holds up to 254 values, after which new values are reported as OVERFLOW_CODE and
+     * must be stored verbatim by the caller.
+     */
+    public static final class Dictionary {
+        private final Map<String, Byte> codes = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[] { null };
+        
+        Dictionary(String... known) {
+            for (String value : known) {
+                encode(value);
+            }
+        }
+        
+        public byte encode(String value) {
+            if (value == null) {
+                return NO_CODE;
+            }
+            Byte code = codes.get(value);
+            return code != null ? code : add(value);
+        }
+        
+        public String decode(byte code) {
+            return values[code & 0xFF];
+        }
+        
+        private synchronized byte add(String value) {
+            Byte code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            String[] current = values;
+            if (current.length >= 255) {
+                return OVERFLOW_CODE;
+            }
+            String[] grown = new String[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            grown[current.length] = value;
+            // Publish the value before its code so decode never sees an unknown code
+            values = grown;
+            codes.put(value, (byte) current.length);
+            return (byte) current.length;
+        }
+    }
+    
+    /**
+     * The shared instance of a repeated id or name. Values whose slots collide evict each
+     * other, which only costs sharing, never correctness.
+     */
+    public static String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        // Racy slot access is safe: Strings are immutable, so any instance read is complete
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (CANONICAL_SLOTS - 1);
+        String existing = canonical[slot];
+        if (value.equals(existing)) {
+            return existing;
+        }
+        canonical[slot] = value;
+        return value;
+    }
+    
+    /**
+     * A yyyy-MM-dd date as an epoch day, NO_DAY for null, OVERFLOW_DAY for anything else
+     */
+    static int encodeDay(String value) {
+        if (value == null) {
+            return NO_DAY;
+        }
+        if (value.length() != 10) {
+            return OVERFLOW_DAY;
+        }
+        try {
+            long day = LocalDate.parse(value).toEpochDay();
+            return day > NO_DAY && day < OVERFLOW_DAY ? (int) day : OVERFLOW_DAY;
+        } catch (DateTimeParseException e) {
+            return OVERFLOW_DAY;
+        }
+    }
+    
+    static String decodeDay(int day) {
+        return day == NO_DAY ? null : LocalDate.ofEpochDay(day).toString();
+    }
+    
+    /**
+     * A yyyy-MM-ddTHH:mm:ss.SSSZ timestamp as epoch millis, NO_TIME for null, OVERFLOW_TIME
+     * for any other form
+     */
+    static long encodeTime(String value) {
+        if (value == null) {
+            return NO_TIME;
+        }
+        if (value.length() != 24 || value.charAt(23) != 'Z') {
+            return OVERFLOW_TIME;
+        }
+        try {
+            long millis = Instant.parse(value).toEpochMilli();
+            return millis != NO_TIME && millis != OVERFLOW_TIME && decodeTime(millis).equals(value) ? millis : OVERFLOW_TIME;
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return OVERFLOW_TIME;
+        }
+    }
+    
+    static String decodeTime(long millis) {
+        return millis == NO_TIME ? null : TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(millis));
+    }
+    
+    /**
+     * The current time in the compact timestamp format
+     */
+    public static String now() {
+        return decodeTime(System.currentTimeMillis());
+    }
+    
+    /**
+     * Epoch millis of any ISO date-time; timestamps without an offset are read as UTC, and
+     * null or unparsable ones give Long.MIN_VALUE
+     */
+    static long parseTimestamp(String value) {
+        if (value == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(value);
+            LocalDateTime local = LocalDateTime.from(parsed);
+            ZoneOffset offset = parsed.isSupported(ChronoField.OFFSET_SECONDS)
+                ? ZoneOffset.ofTotalSeconds(parsed.get(ChronoField.OFFSET_SECONDS))
+                : ZoneOffset.UTC;
+            return local.toInstant(offset).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
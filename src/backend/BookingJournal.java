@@ -0,0 +1,327 @@
+package com.weddingvendor.backend;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented, append-only journal of booking events.
+ * Segments are files named segment-NNNNNNNNNN.log in the journal directory; the highest one
+ * is open for appending and a new one is started once it reaches the size limit. Each record
+ * is [int length][long crc32][byte type][payload], where a CREATED payload is the full booking,
+ * an UPDATED payload is a booking holding the id and only the changed fields, and a DELETED
+ * payload is the booking id.
+ */
+public class BookingJournal {
+    private static final byte CREATED = 1;
+    private static final byte UPDATED = 2;
+    private static final byte DELETED = 3;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+    
+    /**
+     * One booking event. The booking is copied when the event is created, so later changes
+     * to the live booking cannot leak into a record that has not been written yet.
+     */
+    public static final class Event {
+        private final byte type;
+        private final Booking booking;
+        
+        private Event(byte type, Booking booking) {
+            this.type = type;
+            this.booking = booking;
+        }
+        
+        public static Event created(Booking booking) {
+            return new Event(CREATED, new Booking(booking));
+        }
+        
+        public static Event updated(Booking changes) {
+            return new Event(UPDATED, new Booking(changes));
+        }
+        
+        public static Event deleted(String bookingId) {
+            Booking booking = new Booking();
+            booking.setId(bookingId);
+            return new Event(DELETED, booking);
+        }
+    }
+    
+    /**
+     * Receives events while the journal is replayed
+     */
+    public interface Replay {
+        void created(Booking booking);
+        
+        void updated(Booking changes);
+        
+        void deleted(String bookingId);
+    }
+    
+    private final File dir;
+    private final long segmentBytes;
+    private final TreeMap<Long, File> segments = new TreeMap<>();
+    private long activeSegment;
+    private FileChannel channel;
+    
+    public BookingJournal(File dir, long segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+    }
+    
+    /**
+     * Replay every intact record from firstSegment on and open the journal for appending.
+     * Segments before firstSegment are already covered by a snapshot and are deleted.
+     * Replay stops at the first torn, corrupt or undecodable record: that segment is cut
+     * off there and any later segments are set aside as .corrupt files. If open fails, the
+     * journal stays closed and append and roll throw instead of writing.
+     */
+    public synchronized int open(long firstSegment, Replay replay) throws IOException {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create booking journal directory: " + dir);
+        }
+        
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        
+        while (!segments.isEmpty() && segments.firstKey() < firstSegment) {
+            deleteSegment(segments.pollFirstEntry().getValue());
+        }
+        
+        int replayed = 0;
+        Long torn = null;
+        for (Map.Entry<Long, File> entry : segments.entrySet()) {
+            File file = entry.getValue();
+            long validLength = 0;
+            boolean intact = true;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                while (true) {
+                    byte[] body;
+                    long crc;
+                    try {
+                        int length = in.readInt();
+                        crc = in.readLong();
+                        if (length <= 0 || length > file.length()) {
+                            intact = false;
+                            break;
+                        }
+                        body = new byte[length];
+                        in.readFully(body);
+                    } catch (EOFException e) {
+                        intact = validLength == file.length();
+                        break;
+                    }
+                    
+                    if (checksum(body) != crc) {
+                        System.err.println("Booking journal checksum mismatch in " + file.getName() + " at offset " + validLength);
+                        intact = false;
+                        break;
+                    }
+                    
+                    // A record with a valid checksum can still fail to decode, e.g. one written
+                    // by a newer version; it ends replay the same way a torn record does
+                    Event event;
+                    try {
+                        event = decode(body);
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("Undecodable booking journal record in " + file.getName() + " at offset " + validLength + ": " + e);
+                        intact = false;
+                        break;
+                    }
+                    apply(event, replay);
+                    validLength += 12 + body.length;
+                    replayed++;
+                }
+            }
+            
+            if (!intact) {
+                System.err.println("Truncating booking journal segment " + file.getName() + " from " + file.length() + " to " + validLength + " bytes");
+                try (FileChannel truncate = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    truncate.truncate(validLength);
+                    truncate.force(true);
+                }
+                torn = entry.getKey();
+                break;
+            }
+        }
+        
+        // Anything after a torn segment cannot be applied in order
+        if (torn != null) {
+            while (segments.lastKey() > torn) {
+                File file = segments.pollLastEntry().getValue();
+                File aside = new File(file.getPath() + ".corrupt");
+                System.err.println("Setting aside booking journal segment after torn tail: " + file.getName());
+                if (!file.renameTo(aside)) {
+                    deleteSegment(file);
+                }
+            }
+        }
+        
+        if (segments.isEmpty()) {
+            openSegment(Math.max(firstSegment, 1));
+        } else {
+            activeSegment = segments.lastKey();
+            channel = FileChannel.open(segments.lastEntry().getValue().toPath(), StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+        return replayed;
+    }
+    
+    /**
+     * Append a batch of events and force them to disk once, starting a new segment
+     * whenever the active one reaches the size limit
+     */
+    public synchronized void append(List<Event> events) throws IOException {
+        ensureOpen();
+        long startSegment = activeSegment;
+        long startPosition = channel.position();
+        try {
+            for (Event event : events) {
+                ByteBuffer record = encode(event);
+                if (channel.position() > 0 && channel.position() + record.remaining() > segmentBytes) {
+                    channel.force(false);
+                    channel.close();
+                    openSegment(activeSegment + 1);
+                }
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Cut off a partially written batch so later appends do not follow a torn record
+            if (activeSegment == startSegment && channel.isOpen()) {
+                try {
+                    channel.truncate(startPosition);
+                    channel.position(startPosition);
+                } catch (IOException ignored) {
+                    // Recovery will truncate at the torn record instead
+                }
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Seal the active segment and start a new one. Returns the new segment's id: every
+     * event appended from now on lands in that segment or a later one.
+     */
+    public synchronized long roll() throws IOException {
+        ensureOpen();
+        channel.force(false);
+        channel.close();
+        openSegment(activeSegment + 1);
+        return activeSegment;
+    }
+    
+    /**
+     * Delete the segments before the given one, once a snapshot covers them
+     */
+    public synchronized void deleteSegmentsBefore(long segmentId) {
+        while (!segments.isEmpty() && segments.firstKey() < segmentId && segments.firstKey() < activeSegment) {
+            deleteSegment(segments.pollFirstEntry().getValue());
+        }
+    }
+    
+    /**
+     * Number of segments on disk, including the active one
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+    
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+    
+    private void ensureOpen() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            throw new IOException("Booking journal is not open: " + dir);
+        }
+    }
+    
+    private void openSegment(long id) throws IOException {
+        File file = new File(dir, String.format("segment-%010d.log", id));
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        segments.put(id, file);
+        activeSegment = id;
+    }
+    
+    private static void deleteSegment(File file) {
+        if (!file.delete()) {
+            System.err.println("Failed to delete booking journal segment: " + file.getAbsolutePath());
+        }
+    }
+    
+    private static ByteBuffer encode(Event event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(event.type);
+        if (event.type == DELETED) {
+            out.writeUTF(event.booking.getId());
+        } else {
+            BookingCodec.writeBooking(out, event.booking);
+        }
+        byte[] body = bytes.toByteArray();
+        
+        ByteBuffer record = ByteBuffer.allocate(12 + body.length);
+        record.putInt(body.length);
+        record.putLong(checksum(body));
+        record.put(body);
+        record.flip();
+        return record;
+    }
+    
+    private static Event decode(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        if (type == CREATED || type == UPDATED) {
+            return new Event(type, BookingCodec.readBooking(in));
+        } else if (type == DELETED) {
+            return Event.deleted(in.readUTF());
+        } else {
+            throw new IOException("Unknown booking journal record type: " + type);
+        }
+    }
+    
+    private static void apply(Event event, Replay replay) {
+        if (event.type == CREATED) {
+            replay.created(event.booking);
+        } else if (event.type == UPDATED) {
+            replay.updated(event.booking);
+        } else {
+            replay.deleted(event.booking.getId());
+        }
+    }
+    
+    private static long checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        return crc.getValue();
+    }
+}
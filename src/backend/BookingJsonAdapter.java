@@ -0,0 +1,81 @@
+package com.weddingvendor.backend;
+
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Gson form of a Booking: the original String fields in their original order, so the
+ * compact in-memory layout never shows up in the API. Null fields are left out, and
+ * unknown properties are ignored, as with Gson's default reflective handling.
+ */
+public class BookingJsonAdapter extends TypeAdapter<Booking> {
+    
+    @Override
+    public void write(JsonWriter out, Booking booking) throws IOException {
+        if (booking == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        writeString(out, "id", booking.getId());
+        writeString(out, "userId", booking.getUserId());
+        writeString(out, "userName", booking.getUserName());
+        writeString(out, "vendorId", booking.getVendorId());
+        writeString(out, "vendorName", booking.getVendorName());
+        writeString(out, "serviceName", booking.getServiceName());
+        writeString(out, "eventType", booking.getEventType());
+        writeString(out, "serviceDate", booking.getServiceDate());
+        out.name("amount").value(booking.getAmount());
+        writeString(out, "status", booking.getStatus());
+        writeString(out, "paymentStatus", booking.getPaymentStatus());
+        writeString(out, "notes", booking.getNotes());
+        writeString(out, "createdAt", booking.getCreatedAt());
+        writeString(out, "updatedAt", booking.getUpdatedAt());
+        out.endObject();
+    }
+    
+    @Override
+    public Booking read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Booking booking = new Booking();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id": booking.setId(in.nextString()); break;
+                case "userId": booking.setUserId(in.nextString()); break;
+                case "userName": booking.setUserName(in.nextString()); break;
+                case "vendorId": booking.setVendorId(in.nextString()); break;
+                case "vendorName": booking.setVendorName(in.nextString()); break;
+                case "serviceName": booking.setServiceName(in.nextString()); break;
+                case "eventType": booking.setEventType(in.nextString()); break;
+                case "serviceDate": booking.setServiceDate(in.nextString()); break;
+                case "amount": booking.setAmount(in.nextDouble()); break;
+                case "status": booking.setStatus(in.nextString()); break;
+                case "paymentStatus": booking.setPaymentStatus(in.nextString()); break;
+                case "notes": booking.setNotes(in.nextString()); break;
+                case "createdAt": booking.setCreatedAt(in.nextString()); break;
+                case "updatedAt": booking.setUpdatedAt(in.nextString()); break;
+                default: in.skipValue(); break;
+            }
+        }
+        in.endObject();
+        return booking;
+    }
+    
+    private static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.weddingvendor.backend;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Bulk import and export of bookings as newline-delimited JSON (one booking object per line).
+ * Imports are read in chunks: each chunk is parsed and validated in parallel, then applied
+ * as one batch, and the whole import is committed to the journal once at the end. Lines
+ * that fail are reported by line number and do not stop the rest of the import.
+ */
+public final class BookingNdjson {
+    public static final String CONTENT_TYPE = "application/x-ndjson";
+    private static final int CHUNK_LINES = 4096;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final Gson gson = new Gson();
+    
+    private BookingNdjson() {
+    }
+    
+    /**
+     * A line that was not imported
+     */
+    public static final class LineError {
+        private final long line;
+        private final String error;
+        
+        public LineError(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+        
+        public long getLine() {
+            return line;
+        }
+        
+        public String getError() {
+            return error;
+        }
+    }
+    
+    /**
+     * Outcome of an import; only the first MAX_REPORTED_ERRORS errors are listed
+     */
+    public static final class Result {
+        private long imported;
+        private long failed;
+        private final List<LineError> errors = new ArrayList<>();
+        
+        public long getImported() {
+            return imported;
+        }
+        
+        public long getFailed() {
+            return failed;
+        }
+        
+        public List<LineError> getErrors() {
+            return errors;
+        }
+        
+        private void fail(long line, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new LineError(line, error));
+            }
+        }
+    }
+    
+    /**
+     * Import every booking in the stream and wait until they are all on disk
+     */
+    public static Result importFrom(Reader reader, BookingSystem bookingSystem) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Result result = new Result();
+        List<String> lines = new ArrayList<>(CHUNK_LINES);
+        long firstLine = 1;
+        long lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            lines.add(line);
+            if (lines.size() == CHUNK_LINES) {
+                importChunk(lines, firstLine, bookingSystem, result);
+                lines.clear();
+                firstLine = lineNumber + 1;
+            }
+        }
+        importChunk(lines, firstLine, bookingSystem, result);
+        
+        bookingSystem.commitImport();
+        System.out.println("Imported " + result.imported + " bookings, " + result.failed + " lines failed");
+        return result;
+    }
+    
+    /**
+     * Write a consistent snapshot of all bookings, oldest first, one per line
+     */
+    public static int exportTo(Writer out, BookingSystem bookingSystem) throws IOException {
+        List<Booking> snapshot = bookingSystem.exportBookings();
+        for (Booking booking : snapshot) {
+            gson.toJson(booking, Booking.class, out);
+            out.write('\n');
+        }
+        out.flush();
+        System.out.println("Exported " + snapshot.size() + " bookings");
+        return snapshot.size();
+    }
+    
+    private static void importChunk(List<String> lines, long firstLine, BookingSystem bookingSystem, Result result) {
+        int size = lines.size();
+        if (size == 0) {
+            return;
+        }
+        
+        // Parse and validate in parallel; Gson instances are thread-safe
+        Booking[] parsed = new Booking[size];
+        String[] errors = new String[size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            String line = lines.get(i);
+            if (line.trim().isEmpty()) {
+                return;
+            }
+            try {
+                Booking booking = gson.fromJson(line, Booking.class);
+                errors[i] = validate(booking);
+                if (errors[i] == null) {
+                    parsed[i] = booking;
+                }
+            } catch (JsonParseException e) {
+                errors[i] = "Malformed JSON: " + e.getMessage();
+            } catch (RuntimeException e) {
+                // Field values the adapters reject, e.g. a bad number or date, fail only this line
+                errors[i] = "Invalid booking: " + e;
+            }
+        });
+        
+        // Apply the valid bookings in line order, so the first of two conflicting lines wins
+        List<Booking> batch = new ArrayList<>(size);
+        int[] batchLines = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (parsed[i] != null) {
+                batchLines[batch.size()] = i;
+                batch.add(parsed[i]);
+            }
+        }
+        String[] applyErrors = bookingSystem.importBookings(batch);
+        for (int j = 0; j < applyErrors.length; j++) {
+            errors[batchLines[j]] = applyErrors[j];
+        }
+        
+        for (int i = 0; i < size; i++) {
+            if (errors[i] != null) {
+                result.fail(firstLine + i, errors[i]);
+            } else if (parsed[i] != null) {
+                result.imported++;
+            }
+        }
+    }
+    
+    /**
+     * Check a parsed booking and normalize its vendor id; returns the error or null
+     */
+    private static String validate(Booking booking) {
+        if (booking == null) {
+            return "Expected a booking object";
+        }
+        if (booking.getVendorId() == null || booking.getVendorId().isEmpty()) {
+            return "vendorId is required";
+        }
+        if (booking.getUserId() == null || booking.getUserId().isEmpty()) {
+            return "userId is required";
+        }
+        if (booking.getServiceDate() != null && BookingCalendar.epochDay(booking.getServiceDate()) == null) {
+            return "Invalid serviceDate, expected yyyy-MM-dd: " + booking.getServiceDate();
+        }
+        if (booking.getAmount() < 0) {
+            return "amount must not be negative";
+        }
+        
+        // Same vendor id normalization as the single-booking endpoint
+        if (!booking.getVendorId().startsWith("vendor")) {
+            booking.setVendorId("vendor" + booking.getVendorId());
+        }
+        return null;
+    }
+}
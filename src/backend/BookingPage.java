@@ -0,0 +1,24 @@
+package com.weddingvendor.backend;
+
+import java.util.List;
+
+/**
+ * One page of a booking list plus the opaque cursor of the next page (null on the last page)
+ */
+public class BookingPage {
+    private final List<Booking> bookings;
+    private final String nextCursor;
+    
+    public BookingPage(List<Booking> bookings, String nextCursor) {
+        this.bookings = bookings;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,86 @@
+package com.weddingvendor.backend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Point-in-time copy of all bookings, written when the booking journal is compacted.
+ * Layout: int magic "WBSN" | int version | long firstSegment | int count | BookingCodec records.
+ * firstSegment is the first journal segment the snapshot does not cover.
+ */
+public final class BookingSnapshot {
+    private static final int MAGIC = 0x5742534E; // "WBSN"
+    private static final int VERSION = 1;
+    
+    private final List<Booking> bookings;
+    private final long firstSegment;
+    
+    private BookingSnapshot(List<Booking> bookings, long firstSegment) {
+        this.bookings = bookings;
+        this.firstSegment = firstSegment;
+    }
+    
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+    
+    /**
+     * First journal segment to replay on top of this snapshot
+     */
+    public long getFirstSegment() {
+        return firstSegment;
+    }
+    
+    /**
+     * Write the bookings to a temporary file and atomically move it into place
+     */
+    public static void write(File file, List<Booking> bookings, long firstSegment) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(firstSegment);
+            out.writeInt(bookings.size());
+            for (Booking booking : bookings) {
+                BookingCodec.writeBooking(out, booking);
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Read a snapshot file
+     */
+    public static BookingSnapshot read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a booking snapshot: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported booking snapshot version " + version + ": " + file);
+            }
+            long firstSegment = in.readLong();
+            int count = in.readInt();
+            List<Booking> bookings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                bookings.add(BookingCodec.readBooking(in));
+            }
+            return new BookingSnapshot(bookings, firstSegment);
+        }
+    }
+}
@@ -2,30 +2,82 @@
 package com.weddingvendor.backend;
 
 import java.io.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 
 /**
  * File-based booking system for the Wedding Vendor application
  */
 public class BookingSystem {
-    private static List<Booking> bookings = new ArrayList<>();
-    private static final DateTimeFormatter ISO_FORMAT = DateTimeFormatter.ISO_DATE_TIME;
-    private static final String DATA_FILE = "bookings.dat";
+    // Bookings by id, plus per-user and per-vendor buckets (booking id -> booking). Reads go
+    // straight to these concurrent maps; writes are serialized per vendor by lock striping.
+    private static final Map<String, Booking> bookings = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Booking>> bookingsByUser = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Booking>> bookingsByVendor = new ConcurrentHashMap<>();
+    private static final ReentrantLock[] vendorLocks = new ReentrantLock[64];
+    private static final BookingCalendar calendar = new BookingCalendar();
+    private static final BookingTimeIndex serviceDates =
+        new BookingTimeIndex(Booking::serviceEpochDay);
+    private static final BookingTimeIndex createdTimes = new BookingTimeIndex(BookingSystem::createdAtMillis);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_AVAILABILITY_DAYS = 366;
+    private static final Comparator<Booking> CREATED_ORDER = Comparator
+        .comparing(BookingSystem::createdAtMillis)
+        .thenComparing(Booking::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+    private static final String DATA_DIR = System.getProperty("weddingvendor.data.dir", "data");
+    private static final String SNAPSHOT_FILE = DATA_DIR + "/bookings.snapshot";
+    private static final String JOURNAL_DIR = DATA_DIR + "/bookings-journal";
+    private static final long SEGMENT_BYTES = 4L << 20;
+    private static final int COMPACTION_SEGMENTS = 4;
+    private static final long COMPACTION_INTERVAL_SECONDS = 60;
+    // Group commit settings: mutations are written at most every interval, or sooner once
+    // a batch has queued up; with durable acks callers wait until their change is on disk
+    private static final long COMMIT_INTERVAL_MILLIS = Long.getLong("weddingvendor.bookings.commitIntervalMillis", 200);
+    private static final int COMMIT_BATCH_SIZE = Integer.getInteger("weddingvendor.bookings.commitBatchSize", 128);
+    private static final boolean DURABLE_ACK = Boolean.getBoolean("weddingvendor.bookings.durableAck");
+    private static BookingJournal journal;
+    private static final GroupCommitWriter<BookingJournal.Event> writer =
+        new GroupCommitWriter<>("booking-writer", batch -> journal.append(batch), COMMIT_INTERVAL_MILLIS, COMMIT_BATCH_SIZE);
+    private static ScheduledExecutorService compactor;
     private static boolean isInitialized = false;
     
     // Initialize with sample data or load from file
     static {
+        for (int i = 0; i < vendorLocks.length; i++) {
+            vendorLocks[i] = new ReentrantLock();
+        }
+        
         loadFromFile();
         
         // If no data was loaded, initialize with sample data
         if (bookings.isEmpty()) {
             initializeSampleData();
         }
+        
+        writer.start();
+        startCompactor();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                writer.close();
+                journal.close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                System.err.println("Error closing booking journal: " + e.getMessage());
+            }
+        }, "booking-writer-shutdown"));
     }
     
     /**
@@ -83,94 +135,379 @@ public class BookingSystem {
         booking3.setUpdatedAt("2023-09-11T16:20:00.000Z");
         
         // Add all bookings to the system
-        bookings.add(booking1);
-        bookings.add(booking2);
-        bookings.add(booking3);
+        indexBooking(booking1);
+        indexBooking(booking2);
+        indexBooking(booking3);
         
-        // Save the initial data to file
-        saveToFile();
+        // Save the initial data to the journal
+        writer.enqueue(BookingJournal.Event.created(booking1));
+        writer.enqueue(BookingJournal.Event.created(booking2));
+        writer.enqueue(BookingJournal.Event.created(booking3));
     }
     
     /**
-     * Load bookings from file
+     * Load bookings from the latest snapshot and replay the journal on top of it
      */
-    @SuppressWarnings("unchecked")
     private static void loadFromFile() {
-        File file = new File(DATA_FILE);
-        
-        if (file.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                // Read the list of bookings from the file
-                bookings = (List<Booking>) ois.readObject();
-                System.out.println("Loaded " + bookings.size() + " bookings from file");
+        File snapshot = new File(SNAPSHOT_FILE);
+        long firstSegment = 0;
+        try {
+            if (snapshot.exists()) {
+                BookingSnapshot contents = BookingSnapshot.read(snapshot);
+                for (Booking booking : contents.getBookings()) {
+                    indexBooking(booking);
+                }
+                firstSegment = contents.getFirstSegment();
+                System.out.println("Loaded " + bookings.size() + " bookings from snapshot: " + snapshot.getAbsolutePath());
                 isInitialized = true;
-            } catch (IOException | ClassNotFoundException e) {
-                System.err.println("Error loading bookings from file: " + e.getMessage());
-                e.printStackTrace();
             }
+        } catch (IOException e) {
+            System.err.println("Error loading booking snapshot: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        try {
+            journal = new BookingJournal(new File(JOURNAL_DIR), SEGMENT_BYTES);
+            int replayed = journal.open(firstSegment, new BookingJournal.Replay() {
+                @Override
+                public void created(Booking booking) {
+                    unindexBooking(booking.getId());
+                    indexBooking(booking);
+                }
+                
+                @Override
+                public void updated(Booking changes) {
+                    Booking booking = bookings.get(changes.getId());
+                    if (booking != null) {
+                        applyChanges(booking, changes);
+                    }
+                }
+                
+                @Override
+                public void deleted(String bookingId) {
+                    unindexBooking(bookingId);
+                }
+            });
+            System.out.println("Replayed " + replayed + " records from booking journal");
+            isInitialized = isInitialized || replayed > 0;
+        } catch (IOException e) {
+            System.err.println("Error replaying booking journal: " + e.getMessage());
+            e.printStackTrace();
         }
     }
     
     /**
-     * Save bookings to file
+     * Write a snapshot and delete the journal segments it covers. The bookings are copied
+     * and the journal rolled to a fresh segment with every vendor lock held, so every event not in the
+     * copy lands in that segment or later; events queued before the copy may land there too
+     * and simply re-apply the same values on replay.
      */
-    private static void saveToFile() {
+    private static synchronized void compact() {
+        if (journal == null) {
+            return;
+        }
         try {
-            // Ensure the data directory exists
-            File dataDir = new File("data");
-            if (!dataDir.exists()) {
-                dataDir.mkdir();
+            List<Booking> copy = new ArrayList<>();
+            long firstSegment;
+            lockAll();
+            try {
+                for (Booking booking : bookings.values()) {
+                    copy.add(new Booking(booking));
+                }
+                firstSegment = journal.roll();
+            } finally {
+                unlockAll();
             }
             
-            File file = new File(DATA_FILE);
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-                oos.writeObject(bookings);
-                System.out.println("Saved " + bookings.size() + " bookings to file");
-            }
+            BookingSnapshot.write(new File(SNAPSHOT_FILE), copy, firstSegment);
+            journal.deleteSegmentsBefore(firstSegment);
+            System.out.println("Saved snapshot of " + copy.size() + " bookings to file: " + SNAPSHOT_FILE);
         } catch (IOException e) {
-            System.err.println("Error saving bookings to file: " + e.getMessage());
+            System.err.println("Error compacting booking journal: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
     /**
-     * Get all bookings in the system
+     * Start the background task that compacts the journal once enough segments pile up
+     */
+    private static void startCompactor() {
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            if (journal != null && journal.getSegmentCount() > COMPACTION_SEGMENTS) {
+                compact();
+            }
+        }, COMPACTION_INTERVAL_SECONDS, COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Queue an event for the next group commit; must be called while holding the booking's
+     * vendor lock so events for a booking are journaled in the order they were applied
+     */
+    private static long persist(BookingJournal.Event event) {
+        return writer.enqueue(event);
+    }
+    
+    /**
+     * With durable acks, wait until the save covering a mutation is on disk. Throws
+     * UncheckedIOException when the save failed or the wait was interrupted, so the caller
+     * answers with an error instead of acknowledging a write that may be lost.
+     */
+    private static void awaitDurable(long seq) {
+        if (!DURABLE_ACK) {
+            return;
+        }
+        try {
+            writer.awaitCommit(seq);
+        } catch (IOException e) {
+            System.err.println("Error writing bookings to journal: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for journal commit"));
+        }
+    }
+    
+    /**
+     * Lock stripe guarding all bookings of a vendor
+     */
+    private static ReentrantLock vendorLock(String vendorId) {
+        return vendorLocks[stripe(vendorId)];
+    }
+    
+    private static int stripe(String vendorId) {
+        int hash = vendorId != null ? vendorId.hashCode() : 0;
+        return (hash ^ (hash >>> 16)) & (vendorLocks.length - 1);
+    }
+    
+    /**
+     * Lock two stripes in ascending stripe order, for a booking moving between vendors;
+     * the same order lockAll uses, so no two lockers can wait on each other
+     */
+    private static void lockPair(int first, int second) {
+        vendorLocks[Math.min(first, second)].lock();
+        if (first != second) {
+            vendorLocks[Math.max(first, second)].lock();
+        }
+    }
+    
+    private static void unlockPair(int first, int second) {
+        if (first != second) {
+            vendorLocks[Math.max(first, second)].unlock();
+        }
+        vendorLocks[Math.min(first, second)].unlock();
+    }
+    
+    private static void lockAll() {
+        for (ReentrantLock lock : vendorLocks) {
+            lock.lock();
+        }
+    }
+    
+    private static void unlockAll() {
+        for (int i = vendorLocks.length - 1; i >= 0; i--) {
+            vendorLocks[i].unlock();
+        }
+    }
+    
+    /**
+     * Add a booking to the id, user and vendor indexes. A duplicate id keeps the first booking.
+     */
+    private static boolean indexBooking(Booking booking) {
+        if (bookings.putIfAbsent(booking.getId(), booking) != null) {
+            return false;
+        }
+        addToBucket(bookingsByUser, booking.getUserId(), booking);
+        addToBucket(bookingsByVendor, booking.getVendorId(), booking);
+        calendar.add(booking);
+        serviceDates.add(booking);
+        createdTimes.add(booking);
+        return true;
+    }
+    
+    /**
+     * Remove a booking from the id, user and vendor indexes
+     */
+    private static Booking unindexBooking(String bookingId) {
+        Booking booking = bookings.get(bookingId);
+        if (booking != null) {
+            removeFromBucket(bookingsByUser, booking.getUserId(), booking);
+            removeFromBucket(bookingsByVendor, booking.getVendorId(), booking);
+            calendar.remove(booking);
+            serviceDates.remove(booking);
+            createdTimes.remove(booking);
+            bookings.remove(bookingId, booking);
+        }
+        return booking;
+    }
+    
+    /**
+     * Add to a bucket; compute runs atomically per key, so a bucket is never dropped while
+     * another thread is adding to it
+     */
+    private static void addToBucket(Map<String, Map<String, Booking>> index, String key, Booking booking) {
+        if (key != null) {
+            index.compute(key, (k, bucket) -> {
+                Map<String, Booking> result = bucket != null ? bucket : new ConcurrentHashMap<>();
+                result.put(booking.getId(), booking);
+                return result;
+            });
+        }
+    }
+    
+    private static void removeFromBucket(Map<String, Map<String, Booking>> index, String key, Booking booking) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, bucket) -> {
+                bucket.remove(booking.getId(), booking);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+    
+    private static List<Booking> bucket(Map<String, Map<String, Booking>> index, String key) {
+        Map<String, Booking> bucket = key != null ? index.get(key) : null;
+        List<Booking> result = bucket != null ? new ArrayList<>(bucket.values()) : new ArrayList<>();
+        result.sort(CREATED_ORDER);
+        return result;
+    }
+    
+    /**
+     * Get all bookings in the system, oldest first
      */
     public List<Booking> getAllBookings() {
-        return new ArrayList<>(bookings);
+        // The createdAt index already holds every booking in CREATED_ORDER
+        return createdTimes.range(Long.MIN_VALUE, Long.MAX_VALUE);
     }
     
     /**
      * Get bookings for a specific vendor
      */
     public List<Booking> getVendorBookings(String vendorId) {
-        return bookings.stream()
-            .filter(booking -> booking.getVendorId().equals(vendorId))
-            .collect(Collectors.toList());
+        return bucket(bookingsByVendor, vendorId);
     }
     
     /**
      * Get bookings for a specific user
      */
     public List<Booking> getUserBookings(String userId) {
-        return bookings.stream()
-            .filter(booking -> booking.getUserId().equals(userId))
-            .collect(Collectors.toList());
+        return bucket(bookingsByUser, userId);
+    }
+    
+    /**
+     * Bookings with a service date in [from, to], in date order; a null bound is open
+     */
+    public List<Booking> getBookingsBetween(LocalDate from, LocalDate to) {
+        return serviceDates.range(lowerDay(from), upperDay(to));
+    }
+    
+    /**
+     * A vendor's bookings with a service date in [from, to], in date order; a null bound is open
+     */
+    public List<Booking> getVendorBookingsBetween(String vendorId, LocalDate from, LocalDate to) {
+        return serviceDates.vendorRange(vendorId, lowerDay(from), upperDay(to));
+    }
+    
+    /**
+     * A user's bookings with a service date in [from, to], in date order; a null bound is open
+     */
+    public List<Booking> getUserBookingsBetween(String userId, LocalDate from, LocalDate to) {
+        return serviceDates.userRange(userId, lowerDay(from), upperDay(to));
+    }
+    
+    /**
+     * One page of all bookings in createdAt order; cursor is the nextCursor of the previous page
+     */
+    public BookingPage getBookingsPage(String cursor, Integer limit) {
+        return createdTimes.page(cursor, pageSize(limit));
+    }
+    
+    /**
+     * One page of a vendor's bookings in createdAt order
+     */
+    public BookingPage getVendorBookingsPage(String vendorId, String cursor, Integer limit) {
+        return createdTimes.vendorPage(vendorId, cursor, pageSize(limit));
+    }
+    
+    /**
+     * One page of a user's bookings in createdAt order
+     */
+    public BookingPage getUserBookingsPage(String userId, String cursor, Integer limit) {
+        return createdTimes.userPage(userId, cursor, pageSize(limit));
+    }
+    
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+    
+    /**
+     * createdAt as epoch millis, read once when a booking is indexed. Timestamps without an
+     * offset are read as UTC; missing or unparsable ones sort first.
+     */
+    private static Long createdAtMillis(Booking booking) {
+        return booking.createdAtMillis();
+    }
+    
+    private static long lowerDay(LocalDate from) {
+        return from != null ? from.toEpochDay() : Long.MIN_VALUE;
+    }
+    
+    private static long upperDay(LocalDate to) {
+        return to != null ? to.toEpochDay() : Long.MAX_VALUE;
+    }
+    
+    /**
+     * Days in [from, to] on which a vendor has no active booking, as ISO dates
+     */
+    public List<String> getVendorAvailability(String vendorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (to.toEpochDay() - from.toEpochDay() >= MAX_AVAILABILITY_DAYS) {
+            throw new IllegalArgumentException("Availability range is limited to " + MAX_AVAILABILITY_DAYS + " days");
+        }
+        
+        List<String> days = new ArrayList<>();
+        for (LocalDate day : calendar.freeDays(vendorId, from, to)) {
+            days.add(day.toString());
+        }
+        return days;
+    }
+    
+    /**
+     * Throw if the vendor already has another active booking on the service date.
+     * Must be called while holding the vendor's lock.
+     */
+    private static void checkAvailable(String vendorId, String serviceDate, String status, String bookingId) {
+        Long day = BookingCalendar.epochDay(serviceDate);
+        if (day == null || !BookingCalendar.isActive(status)) {
+            return;
+        }
+        String conflict = calendar.conflict(vendorId, day, bookingId);
+        if (conflict != null) {
+            throw new BookingConflictException(vendorId, serviceDate, conflict);
+        }
     }
     
     /**
      * Get a specific booking by ID
      */
     public Booking getBookingById(String bookingId) {
-        return bookings.stream()
-            .filter(booking -> booking.getId().equals(bookingId))
-            .findFirst()
-            .orElse(null);
+        return bookingId != null ? bookings.get(bookingId) : null;
     }
     
     /**
-     * Create a new booking
+     * Create a new booking; throws BookingConflictException if the vendor is already booked
+     * that day or a booking with the given id already exists
      */
     public String createBooking(Booking booking) {
         // Generate a new ID if none exists
@@ -179,64 +516,260 @@ public class BookingSystem {
         }
         
         // Set created and updated timestamps
-        String now = LocalDateTime.now().format(ISO_FORMAT);
+        String now = BookingEncoding.now();
         booking.setCreatedAt(now);
         booking.setUpdatedAt(now);
         
-        // Add to collection
-        bookings.add(booking);
-        
-        // Save changes to file
-        saveToFile();
+        long seq;
+        ReentrantLock lock = vendorLock(booking.getVendorId());
+        lock.lock();
+        try {
+            if (bookings.containsKey(booking.getId())) {
+                throw new BookingConflictException(booking.getId());
+            }
+            checkAvailable(booking.getVendorId(), booking.getServiceDate(), booking.getStatus(), booking.getId());
+            
+            // Add to collection and indexes; the id check above only holds this vendor's lock,
+            // so a create for another vendor may have taken the id since, and nothing is
+            // journaled unless this booking is the one indexed
+            if (!indexBooking(booking)) {
+                throw new BookingConflictException(booking.getId());
+            }
+            
+            // Queue the change for the next group commit
+            seq = persist(BookingJournal.Event.created(booking));
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(seq);
         
         return booking.getId();
     }
     
     /**
-     * Update an existing booking
+     * Import a batch of validated bookings. Ids and timestamps from the input are kept when
+     * present. The batch is split by vendor lock stripe and the stripes are applied in
+     * parallel, each under its lock taken once and in input order, so of two lines booking
+     * the same vendor and day the first one wins. Returns one entry per booking: null when it
+     * was imported, otherwise the reason it was skipped. The events are only queued; call
+     * commitImport once the last batch is in.
+     */
+    public String[] importBookings(List<Booking> batch) {
+        String[] errors = new String[batch.size()];
+        String now = BookingEncoding.now();
+        List<List<Integer>> stripes = new ArrayList<>(vendorLocks.length);
+        for (int s = 0; s < vendorLocks.length; s++) {
+            stripes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Booking booking = batch.get(i);
+            if (booking.getId() == null || booking.getId().isEmpty()) {
+                booking.setId("booking" + UUID.randomUUID().toString().substring(0, 8));
+            }
+            if (booking.getCreatedAt() == null) {
+                booking.setCreatedAt(now);
+            }
+            if (booking.getUpdatedAt() == null) {
+                booking.setUpdatedAt(booking.getCreatedAt());
+            }
+            stripes.get(stripe(booking.getVendorId())).add(i);
+        }
+        
+        IntStream.range(0, vendorLocks.length).parallel().forEach(s -> {
+            List<Integer> lines = stripes.get(s);
+            if (lines.isEmpty()) {
+                return;
+            }
+            vendorLocks[s].lock();
+            try {
+                for (int i : lines) {
+                    Booking booking = batch.get(i);
+                    if (bookings.containsKey(booking.getId())) {
+                        errors[i] = "Booking already exists: " + booking.getId();
+                        continue;
+                    }
+                    try {
+                        checkAvailable(booking.getVendorId(), booking.getServiceDate(), booking.getStatus(), booking.getId());
+                    } catch (BookingConflictException e) {
+                        errors[i] = e.getMessage();
+                        continue;
+                    }
+                    if (!indexBooking(booking)) {
+                        errors[i] = "Booking already exists: " + booking.getId();
+                        continue;
+                    }
+                    persist(BookingJournal.Event.created(booking));
+                }
+            } finally {
+                vendorLocks[s].unlock();
+            }
+        });
+        return errors;
+    }
+    
+    /**
+     * Wait until every imported booking is in the journal, then compact if the import left
+     * more segments behind than the background compactor allows
+     */
+    public void commitImport() throws IOException {
+        try {
+            writer.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while committing import", e);
+        }
+        if (journal != null && journal.getSegmentCount() > COMPACTION_SEGMENTS) {
+            compact();
+        }
+    }
+    
+    /**
+     * Copies of all bookings as of one point in time, oldest first. The copy is taken with
+     * every vendor lock held, so no mutation is half visible in it.
+     */
+    public List<Booking> exportBookings() {
+        List<Booking> copy = new ArrayList<>(bookings.size());
+        lockAll();
+        try {
+            for (Booking booking : createdTimes.range(Long.MIN_VALUE, Long.MAX_VALUE)) {
+                copy.add(new Booking(booking));
+            }
+        } finally {
+            unlockAll();
+        }
+        return copy;
+    }
+    
+    /**
+     * Update an existing booking; throws BookingConflictException if it would move onto a day
+     * the vendor is already booked
      */
     public boolean updateBooking(String bookingId, Booking updates) {
-        for (int i = 0; i < bookings.size(); i++) {
-            Booking booking = bookings.get(i);
+        // The journaled change: the non-null fields plus the new updatedAt timestamp
+        Booking changes = new Booking(updates);
+        changes.setId(bookingId);
+        changes.setCreatedAt(null);
+        changes.setUpdatedAt(BookingEncoding.now());
+        
+        long seq;
+        while (true) {
+            Booking booking = getBookingById(bookingId);
+            if (booking == null) {
+                return false;
+            }
             
-            if (booking.getId().equals(bookingId)) {
-                // Update all non-null fields
-                if (updates.getUserId() != null) booking.setUserId(updates.getUserId());
-                if (updates.getUserName() != null) booking.setUserName(updates.getUserName());
-                if (updates.getVendorId() != null) booking.setVendorId(updates.getVendorId());
-                if (updates.getVendorName() != null) booking.setVendorName(updates.getVendorName());
-                if (updates.getServiceName() != null) booking.setServiceName(updates.getServiceName());
-                if (updates.getEventType() != null) booking.setEventType(updates.getEventType());
-                if (updates.getServiceDate() != null) booking.setServiceDate(updates.getServiceDate());
-                if (updates.getAmount() > 0) booking.setAmount(updates.getAmount());
-                if (updates.getStatus() != null) booking.setStatus(updates.getStatus());
-                if (updates.getPaymentStatus() != null) booking.setPaymentStatus(updates.getPaymentStatus());
-                if (updates.getNotes() != null) booking.setNotes(updates.getNotes());
-                
-                // Always update the updatedAt timestamp
-                booking.setUpdatedAt(LocalDateTime.now().format(ISO_FORMAT));
+            // Hold the current vendor's stripe, and the new vendor's if the booking moves
+            String vendorId = booking.getVendorId();
+            int current = stripe(vendorId);
+            int target = changes.getVendorId() != null ? stripe(changes.getVendorId()) : current;
+            lockPair(current, target);
+            try {
+                // Retry if the booking was deleted or moved before the locks were taken
+                if (bookings.get(bookingId) != booking || !Objects.equals(vendorId, booking.getVendorId())) {
+                    continue;
+                }
                 
-                // Save changes to file
-                saveToFile();
+                checkAvailable(
+                    changes.getVendorId() != null ? changes.getVendorId() : booking.getVendorId(),
+                    changes.getServiceDate() != null ? changes.getServiceDate() : booking.getServiceDate(),
+                    changes.getStatus() != null ? changes.getStatus() : booking.getStatus(),
+                    bookingId);
+                applyChanges(booking, changes);
                 
-                return true;
+                // Queue the change for the next group commit
+                seq = persist(BookingJournal.Event.updated(changes));
+                break;
+            } finally {
+                unlockPair(current, target);
             }
         }
+        awaitDurable(seq);
+        
+        return true;
+    }
+    
+    /**
+     * Replace a booking with a copy carrying the non-null fields of a change. The booking
+     * itself is never modified, since readers hold it without a lock: the copy is added to
+     * every secondary index, swapped into the id map, and only then is the old booking
+     * removed, so a lock-free reader finds the booking, old or new, at every step.
+     */
+    private static Booking applyChanges(Booking booking, Booking changes) {
+        Booking updated = new Booking(booking);
+        if (changes.getUserId() != null) updated.setUserId(changes.getUserId());
+        if (changes.getVendorId() != null) updated.setVendorId(changes.getVendorId());
+        if (changes.getUserName() != null) updated.setUserName(changes.getUserName());
+        if (changes.getVendorName() != null) updated.setVendorName(changes.getVendorName());
+        if (changes.getServiceName() != null) updated.setServiceName(changes.getServiceName());
+        if (changes.getEventType() != null) updated.setEventType(changes.getEventType());
+        if (changes.getServiceDate() != null) updated.setServiceDate(changes.getServiceDate());
+        if (changes.getAmount() > 0) updated.setAmount(changes.getAmount());
+        if (changes.getStatus() != null) updated.setStatus(changes.getStatus());
+        if (changes.getPaymentStatus() != null) updated.setPaymentStatus(changes.getPaymentStatus());
+        if (changes.getNotes() != null) updated.setNotes(changes.getNotes());
+        if (changes.getUpdatedAt() != null) updated.setUpdatedAt(changes.getUpdatedAt());
         
-        return false;
+        // Add first: entries under an unchanged key are replaced in place by the copy
+        addToBucket(bookingsByUser, updated.getUserId(), updated);
+        addToBucket(bookingsByVendor, updated.getVendorId(), updated);
+        calendar.add(updated);
+        serviceDates.add(updated);
+        createdTimes.add(updated);
+        bookings.put(updated.getId(), updated);
+        
+        // Then remove: bucket and time index removals only drop entries still holding the
+        // old booking, so they leave the copy alone; the calendar keys on ids, so the old
+        // day is only released when the copy no longer holds it
+        removeFromBucket(bookingsByUser, booking.getUserId(), booking);
+        removeFromBucket(bookingsByVendor, booking.getVendorId(), booking);
+        if (!holdsSameDay(booking, updated)) {
+            calendar.remove(booking);
+        }
+        serviceDates.remove(booking);
+        createdTimes.remove(booking);
+        return updated;
+    }
+    
+    /**
+     * Whether the updated booking holds the calendar day of the original one
+     */
+    private static boolean holdsSameDay(Booking original, Booking updated) {
+        return BookingCalendar.isActive(updated)
+            && Objects.equals(original.getVendorId(), updated.getVendorId())
+            && Objects.equals(original.serviceEpochDay(), updated.serviceEpochDay());
     }
     
     /**
      * Delete a booking
      */
     public boolean deleteBooking(String bookingId) {
-        boolean removed = bookings.removeIf(booking -> booking.getId().equals(bookingId));
-        
-        if (removed) {
-            // Save changes to file
-            saveToFile();
+        long seq;
+        while (true) {
+            Booking booking = getBookingById(bookingId);
+            if (booking == null) {
+                return false;
+            }
+            
+            String vendorId = booking.getVendorId();
+            ReentrantLock lock = vendorLock(vendorId);
+            lock.lock();
+            try {
+                // Retry if the booking was deleted or moved before the lock was taken
+                if (bookings.get(bookingId) != booking || !Objects.equals(vendorId, booking.getVendorId())) {
+                    continue;
+                }
+                
+                // Queue the deletion before the id is released, so a new booking reusing the
+                // id under another vendor's lock is always journaled after it
+                seq = persist(BookingJournal.Event.deleted(bookingId));
+                unindexBooking(bookingId);
+                break;
+            } finally {
+                lock.unlock();
+            }
         }
+        awaitDurable(seq);
         
-        return removed;
+        return true;
     }
 }
@@ -0,0 +1,214 @@
+package com.weddingvendor.backend;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Bookings ordered by a time value parsed once from the booking (e.g. the service date as
+ * an epoch day), globally and per vendor and user. Range queries read a sub-map, so their
+ * cost depends on the size of the window rather than on the total number of bookings.
+ * Writers must hold the booking's vendor lock in BookingSystem; readers need no lock.
+ */
+public class BookingTimeIndex {
+    
+    /**
+     * Sort key: time, then booking id to keep bookings at the same time apart
+     */
+    public static final class Key implements Comparable<Key> {
+        private final long time;
+        private final String id;
+        
+        public Key(long time, String id) {
+            this.time = time;
+            this.id = id;
+        }
+        
+        public long getTime() {
+            return time;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        /**
+         * Opaque, URL-safe form of the key for use as a pagination cursor
+         */
+        public String toCursor() {
+            byte[] bytes = (time + ":" + id).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        }
+        
+        /**
+         * Parse a cursor made by toCursor
+         */
+        public static Key fromCursor(String cursor) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = value.indexOf(':');
+                return new Key(Long.parseLong(value.substring(0, separator)), value.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        
+        @Override
+        public int compareTo(Key other) {
+            int result = Long.compare(time, other.time);
+            return result != 0 ? result : id.compareTo(other.id);
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && compareTo((Key) other) == 0;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Long.hashCode(time) * 31 + id.hashCode();
+        }
+    }
+    
+    private final Function<Booking, Long> timeOf;
+    private final NavigableMap<Key, Booking> all = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableMap<Key, Booking>> byVendor = new ConcurrentHashMap<>();
+    private final Map<String, NavigableMap<Key, Booking>> byUser = new ConcurrentHashMap<>();
+    
+    /**
+     * @param timeOf extracts the time value, or null for bookings that should not be indexed
+     */
+    public BookingTimeIndex(Function<Booking, Long> timeOf) {
+        this.timeOf = timeOf;
+    }
+    
+    /**
+     * Index a booking under its current time, vendor and user
+     */
+    public void add(Booking booking) {
+        Key key = keyOf(booking);
+        if (key == null) {
+            return;
+        }
+        all.put(key, booking);
+        addToScope(byVendor, booking.getVendorId(), key, booking);
+        addToScope(byUser, booking.getUserId(), key, booking);
+    }
+    
+    /**
+     * Remove a booking; must be called before its time, vendor or user fields change
+     */
+    public void remove(Booking booking) {
+        Key key = keyOf(booking);
+        if (key == null) {
+            return;
+        }
+        all.remove(key, booking);
+        removeFromScope(byVendor, booking.getVendorId(), key, booking);
+        removeFromScope(byUser, booking.getUserId(), key, booking);
+    }
+    
+    /**
+     * All bookings with a time in [from, to], in time order
+     */
+    public List<Booking> range(long from, long to) {
+        return range(all, from, to);
+    }
+    
+    /**
+     * A vendor's bookings with a time in [from, to], in time order
+     */
+    public List<Booking> vendorRange(String vendorId, long from, long to) {
+        return range(vendorId != null ? byVendor.get(vendorId) : null, from, to);
+    }
+    
+    /**
+     * A user's bookings with a time in [from, to], in time order
+     */
+    public List<Booking> userRange(String userId, long from, long to) {
+        return range(userId != null ? byUser.get(userId) : null, from, to);
+    }
+    
+    /**
+     * Up to limit bookings after the cursor (from the start if null), in time order
+     */
+    public BookingPage page(String cursor, int limit) {
+        return page(all, cursor, limit);
+    }
+    
+    /**
+     * Up to limit of a vendor's bookings after the cursor (from the start if null), in time order
+     */
+    public BookingPage vendorPage(String vendorId, String cursor, int limit) {
+        return page(vendorId != null ? byVendor.get(vendorId) : null, cursor, limit);
+    }
+    
+    /**
+     * Up to limit of a user's bookings after the cursor (from the start if null), in time order
+     */
+    public BookingPage userPage(String userId, String cursor, int limit) {
+        return page(userId != null ? byUser.get(userId) : null, cursor, limit);
+    }
+    
+    private Key keyOf(Booking booking) {
+        Long time = timeOf.apply(booking);
+        return time != null && booking.getId() != null ? new Key(time, booking.getId()) : null;
+    }
+    
+    private static List<Booking> range(NavigableMap<Key, Booking> scope, long from, long to) {
+        if (scope == null || from > to) {
+            return new ArrayList<>();
+        }
+        // "" sorts before every id, so this covers all bookings at both end times
+        NavigableMap<Key, Booking> window = to == Long.MAX_VALUE
+            ? scope.tailMap(new Key(from, ""), true)
+            : scope.subMap(new Key(from, ""), true, new Key(to + 1, ""), false);
+        return new ArrayList<>(window.values());
+    }
+    
+    /**
+     * Seek to the cursor key and read one page; the cost does not depend on how deep the page is
+     */
+    private static BookingPage page(NavigableMap<Key, Booking> scope, String cursor, int limit) {
+        Key after = cursor != null ? Key.fromCursor(cursor) : null;
+        List<Booking> bookings = new ArrayList<>(Math.min(limit, 64));
+        if (scope == null) {
+            return new BookingPage(bookings, null);
+        }
+        
+        Key last = null;
+        for (Map.Entry<Key, Booking> entry : (after != null ? scope.tailMap(after, false) : scope).entrySet()) {
+            if (bookings.size() == limit) {
+                return new BookingPage(bookings, last.toCursor());
+            }
+            bookings.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new BookingPage(bookings, null);
+    }
+    
+    private static void addToScope(Map<String, NavigableMap<Key, Booking>> scopes, String scopeId, Key key, Booking booking) {
+        if (scopeId != null) {
+            scopes.compute(scopeId, (k, scope) -> {
+                NavigableMap<Key, Booking> result = scope != null ? scope : new ConcurrentSkipListMap<>();
+                result.put(key, booking);
+                return result;
+            });
+        }
+    }
+    
+    private static void removeFromScope(Map<String, NavigableMap<Key, Booking>> scopes, String scopeId, Key key, Booking booking) {
+        if (scopeId != null) {
+            scopes.computeIfPresent(scopeId, (k, scope) -> {
+                scope.remove(key, booking);
+                return scope.isEmpty() ? null : scope;
+            });
+        }
+    }
+}
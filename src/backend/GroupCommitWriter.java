@@ -0,0 +1,184 @@
+package com.weddingvendor.backend;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Background writer that coalesces records into group commits.
+ * Callers enqueue records and get back a sequence number; a single writer thread hands
+ * everything queued so far to the sink once the commit interval has passed or the batch
+ * size is reached, so one disk write covers a whole burst of mutations. Callers that need
+ * durability wait on their sequence number with awaitCommit.
+ */
+public class GroupCommitWriter<T> {
+    
+    /**
+     * Persists one batch of records
+     */
+    public interface Sink<T> {
+        void commit(List<T> batch) throws IOException;
+    }
+    
+    private final Sink<T> sink;
+    private final long intervalMillis;
+    private final int batchSize;
+    private final Thread thread;
+    
+    private List<T> pending = new ArrayList<>();
+    private long enqueuedSeq;
+    private long committedSeq;
+    // Failed batches by last sequence number; every failure is kept so a waiter on an
+    // older failed batch still gets its error after later batches fail too
+    private final TreeMap<Long, Failure> failures = new TreeMap<>();
+    private boolean flushRequested;
+    private boolean closed;
+    
+    public GroupCommitWriter(String name, Sink<T> sink, long intervalMillis, int batchSize) {
+        this.sink = sink;
+        this.intervalMillis = Math.max(0, intervalMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+    
+    public void start() {
+        thread.start();
+    }
+    
+    /**
+     * Queue a record for the next group commit and return its sequence number
+     */
+    public synchronized long enqueue(T record) {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        pending.add(record);
+        enqueuedSeq++;
+        // Wake the writer when a batch starts, and again once it is full
+        if (pending.size() == 1 || pending.size() >= batchSize) {
+            notifyAll();
+        }
+        return enqueuedSeq;
+    }
+    
+    /**
+     * Block until the record with the given sequence number has been committed
+     */
+    public synchronized void awaitCommit(long seq) throws IOException, InterruptedException {
+        while (true) {
+            Map.Entry<Long, Failure> failed = failures.ceilingEntry(seq);
+            if (failed != null && seq > failed.getValue().fromSeq) {
+                throw new IOException("Group commit failed", failed.getValue().error);
+            }
+            if (committedSeq >= seq) {
+                return;
+            }
+            if (closed && !thread.isAlive()) {
+                throw new IOException("Writer closed before commit");
+            }
+            wait();
+        }
+    }
+    
+    /**
+     * Commit everything queued so far without waiting for the interval, and wait for it
+     */
+    public void flush() throws IOException, InterruptedException {
+        long seq;
+        synchronized (this) {
+            seq = enqueuedSeq;
+            flushRequested = true;
+            notifyAll();
+        }
+        awaitCommit(seq);
+    }
+    
+    /**
+     * Commit the remaining records and stop the writer thread
+     */
+    public void close() throws InterruptedException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        thread.join();
+    }
+    
+    public synchronized long getCommittedSeq() {
+        return committedSeq;
+    }
+    
+    private void run() {
+        while (true) {
+            List<T> batch;
+            long batchStartSeq;
+            long batchSeq;
+            synchronized (this) {
+                try {
+                    while (pending.isEmpty() && !closed) {
+                        wait();
+                    }
+                    
+                    // Give the batch the rest of the interval to fill up
+                    long deadline = System.currentTimeMillis() + intervalMillis;
+                    long remaining = intervalMillis;
+                    while (pending.size() < batchSize && !flushRequested && !closed && remaining > 0) {
+                        wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
+                    }
+                } catch (InterruptedException e) {
+                    closed = true;
+                }
+                
+                if (pending.isEmpty()) {
+                    flushRequested = false;
+                    if (closed) {
+                        notifyAll();
+                        return;
+                    }
+                    continue;
+                }
+                batch = pending;
+                batchSeq = enqueuedSeq;
+                batchStartSeq = batchSeq - batch.size();
+                pending = new ArrayList<>();
+                flushRequested = false;
+            }
+            
+            IOException error = null;
+            try {
+                sink.commit(batch);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error committing " + batch.size() + " records: " + e.getMessage());
+                e.printStackTrace();
+                error = e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+            
+            synchronized (this) {
+                // A failed batch is not retried; committedSeq moves past it so later batches
+                // are still acknowledged, and waiters inside the failed range get the error
+                if (error != null) {
+                    failures.put(batchSeq, new Failure(batchStartSeq, error));
+                }
+                committedSeq = batchSeq;
+                notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * A failed batch: the sequence numbers after fromSeq up to its key, and the error
+     */
+    private static final class Failure {
+        final long fromSeq;
+        final IOException error;
+        
+        Failure(long fromSeq, IOException error) {
+            this.fromSeq = fromSeq;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.weddingvendor.backend;
+
+import java.io.IOException;
+import java.io.Writer;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streams JSON responses straight to the servlet writer with Gson's JsonWriter.
+ * List items are serialized one at a time, so no response is ever built up as one big
+ * String. Output is compact unless the request asks for ?pretty=true. Failures go
+ * through writeError, which never appends an error to a partly streamed body.
+ */
+final class JsonResponseWriter {
+    
+    private JsonResponseWriter() {
+    }
+    
+    /**
+     * Whether the request asked for indented output
+     */
+    static boolean isPretty(HttpServletRequest request) {
+        String pretty = request.getParameter("pretty");
+        return pretty != null && (pretty.isEmpty() || pretty.equalsIgnoreCase("true") || pretty.equals("1"));
+    }
+    
+    /**
+     * Write the items as a JSON array, one element at a time
+     */
+    static void writeArray(Writer out, Gson gson, Iterable<?> items, boolean pretty) throws IOException {
+        JsonWriter writer = open(out, pretty);
+        writer.beginArray();
+        for (Object item : items) {
+            if (item == null) {
+                writer.nullValue();
+            } else {
+                gson.toJson(item, item.getClass(), writer);
+            }
+        }
+        writer.endArray();
+        writer.flush();
+    }
+    
+    /**
+     * Write a single value
+     */
+    static void writeValue(Writer out, Gson gson, Object value, boolean pretty) throws IOException {
+        JsonWriter writer = open(out, pretty);
+        if (value == null) {
+            writer.nullValue();
+        } else {
+            gson.toJson(value, value.getClass(), writer);
+        }
+        writer.flush();
+    }
+    
+    /**
+     * Answer a failed request with a JSON error. Whatever part of the body is still in the
+     * response buffer is discarded first. Once the response is committed, the status
+     * cannot change and part of the body is already sent, so the cause is rethrown. The
+     * container then aborts the response, and the client sees a broken response rather
+     * than a body with an error object appended.
+     */
+    static void writeError(HttpServletResponse response, Gson gson, int status, Object error, boolean pretty,
+                           Exception cause) throws IOException {
+        if (response.isCommitted()) {
+            throw new IOException("Response aborted after streaming had started", cause);
+        }
+        response.resetBuffer();
+        response.setStatus(status);
+        writeValue(response.getWriter(), gson, error, pretty);
+    }
+    
+    private static JsonWriter open(Writer out, boolean pretty) {
+        // Not closed by the callers: closing would close the servlet writer
+        JsonWriter writer = new JsonWriter(out);
+        if (pretty) {
+            writer.setIndent("  ");
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,315 @@
+package com.weddingvendor.backend;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable sorted map: an AVL tree whose nodes are never modified. put and remove copy
+ * only the O(log n) nodes on the path to the changed key and share every other node with
+ * the map they were derived from, so each catalog version costs a small delta over the
+ * previous one. Nodes carry subtree sizes for positional access.
+ */
+public final class PersistentTreeMap<K, V> {
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+    
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int height;
+        final int size;
+        
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+    
+    private PersistentTreeMap(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+    
+    /**
+     * An empty map in the keys' natural order
+     */
+    public static <K extends Comparable<? super K>, V> PersistentTreeMap<K, V> empty() {
+        return new PersistentTreeMap<>(Comparator.naturalOrder(), null);
+    }
+    
+    /**
+     * An empty map in the comparator's order
+     */
+    public static <K, V> PersistentTreeMap<K, V> empty(Comparator<? super K> comparator) {
+        return new PersistentTreeMap<>(comparator, null);
+    }
+    
+    /**
+     * A balanced map with the entries of a sorted map, built in linear time; for bulk loads
+     * where putting the entries one by one would copy a path per entry
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <K extends Comparable<? super K>, V> PersistentTreeMap<K, V> of(SortedMap<K, V> sorted) {
+        Map.Entry<K, V>[] entries = sorted.entrySet().toArray(new Map.Entry[0]);
+        Comparator<? super K> comparator = sorted.comparator() != null ? sorted.comparator() : Comparator.naturalOrder();
+        return new PersistentTreeMap<>(comparator, build(entries, 0, entries.length));
+    }
+    
+    private static <K, V> Node<K, V> build(Map.Entry<K, V>[] entries, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        return new Node<>(entries[middle].getKey(), entries[middle].getValue(),
+            build(entries, from, middle), build(entries, middle + 1, to));
+    }
+    
+    public int size() {
+        return size(root);
+    }
+    
+    public boolean isEmpty() {
+        return root == null;
+    }
+    
+    public V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, node.key);
+            if (cmp == 0) {
+                return node.value;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+    
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+    
+    /**
+     * The map with the key mapped to the value; values must not be null
+     */
+    public PersistentTreeMap<K, V> put(K key, V value) {
+        Node<K, V> updated = put(root, key, value);
+        return updated == root ? this : new PersistentTreeMap<>(comparator, updated);
+    }
+    
+    /**
+     * The map without the key; this map when the key is absent
+     */
+    public PersistentTreeMap<K, V> remove(K key) {
+        Node<K, V> updated = remove(root, key);
+        return updated == root ? this : new PersistentTreeMap<>(comparator, updated);
+    }
+    
+    /**
+     * The value at a position in key order
+     */
+    public V valueAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+    
+    /**
+     * Read-only list view of the values in key order; get is O(log n), iteration O(1) per step
+     */
+    public List<V> values() {
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index) {
+                return valueAt(index);
+            }
+            
+            @Override
+            public int size() {
+                return PersistentTreeMap.this.size();
+            }
+            
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator<>(root);
+            }
+        };
+    }
+    
+    /**
+     * Visit every entry in key order
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        forEach(root, action);
+    }
+    
+    /**
+     * Visit the entries with from <= key < to, in key order
+     */
+    public void forEachInRange(K from, K to, BiConsumer<? super K, ? super V> action) {
+        forEachInRange(root, from, to, action);
+    }
+    
+    private void forEachInRange(Node<K, V> node, K from, K to, BiConsumer<? super K, ? super V> action) {
+        if (node == null) {
+            return;
+        }
+        boolean aboveFrom = comparator.compare(node.key, from) >= 0;
+        boolean belowTo = comparator.compare(node.key, to) < 0;
+        if (aboveFrom) {
+            forEachInRange(node.left, from, to, action);
+        }
+        if (aboveFrom && belowTo) {
+            action.accept(node.key, node.value);
+        }
+        if (belowTo) {
+            forEachInRange(node.right, from, to, action);
+        }
+    }
+    
+    private static <K, V> void forEach(Node<K, V> node, BiConsumer<? super K, ? super V> action) {
+        if (node != null) {
+            forEach(node.left, action);
+            action.accept(node.key, node.value);
+            forEach(node.right, action);
+        }
+    }
+    
+    private Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) {
+            return balance(node.key, node.value, put(node.left, key, value), node.right);
+        }
+        if (cmp > 0) {
+            return balance(node.key, node.value, node.left, put(node.right, key, value));
+        }
+        return node.value == value ? node : new Node<>(key, value, node.left, node.right);
+    }
+    
+    private Node<K, V> remove(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) {
+            Node<K, V> left = remove(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        }
+        if (cmp > 0) {
+            Node<K, V> right = remove(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+    }
+    
+    private static <K, V> Node<K, V> removeFirst(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, removeFirst(node.left), node.right);
+    }
+    
+    /**
+     * A node over two subtrees whose heights differ by at most two, rotated back into
+     * AVL balance
+     */
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            Node<K, V> pivot = left.right;
+            return new Node<>(pivot.key, pivot.value, new Node<>(left.key, left.value, left.left, pivot.left),
+                new Node<>(key, value, pivot.right, right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            Node<K, V> pivot = right.left;
+            return new Node<>(pivot.key, pivot.value, new Node<>(key, value, left, pivot.left),
+                new Node<>(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+    
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+    
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    /**
+     * In-order traversal with an explicit stack of pending ancestors
+     */
+    private static final class ValueIterator<K, V> implements Iterator<V> {
+        private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+        
+        ValueIterator(Node<K, V> root) {
+            pushLeft(root);
+        }
+        
+        private void pushLeft(Node<K, V> node) {
+            for (; node != null; node = node.left) {
+                stack.push(node);
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+        
+        @Override
+        public V next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = stack.pop();
+            pushLeft(node.right);
+            return node.value;
+        }
+    }
+}
@@ -20,6 +20,13 @@ public class Vendor {
     private String location;
     private String description;
     private List<Service> services;
+    // Search forms of name, description and location (see VendorText), computed on first
+    // use. Each is cached together with the exact string it was computed from and only
+    // served while the field still holds that string, so a computation that races a
+    // setter can store a stale entry but never return it.
+    private transient Normalized normalizedName;
+    private transient Normalized normalizedDescription;
+    private transient Normalized normalizedLocation;
     
     public Vendor() {
         this.services = new ArrayList<>();
@@ -81,11 +88,77 @@ public class Vendor {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
+    /**
+     * Normalized name for search matching; null when the vendor has no name
+     */
+    public String getNormalizedName() {
+        Normalized cached = normalizedName;
+        String source = name;
+        if (cached == null || cached.source != source) {
+            cached = Normalized.of(source);
+            normalizedName = cached;
+        }
+        return cached.value;
+    }
+    
+    /**
+     * Normalized description for search matching; null when there is none
+     */
+    public String getNormalizedDescription() {
+        Normalized cached = normalizedDescription;
+        String source = description;
+        if (cached == null || cached.source != source) {
+            cached = Normalized.of(source);
+            normalizedDescription = cached;
+        }
+        return cached.value;
+    }
+    
+    /**
+     * Normalized location for search matching; null when there is none
+     */
+    public String getNormalizedLocation() {
+        Normalized cached = normalizedLocation;
+        String source = location;
+        if (cached == null || cached.source != source) {
+            cached = Normalized.of(source);
+            normalizedLocation = cached;
+        }
+        return cached.value;
+    }
+    
     public List<Service> getServices() { return services; }
     public void setServices(List<Service> services) { this.services = services; }
     public void addService(Service service) { this.services.add(service); }
     
+    /**
+     * Restore stored prices and their display string without reformatting it
+     */
+    void restorePrices(double minPrice, double maxPrice, String priceDisplay) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.priceDisplay = priceDisplay;
+    }
+    
     private void updatePriceDisplay() {
         this.priceDisplay = "$" + String.format("%.0f", minPrice) + " - $" + String.format("%.0f", maxPrice);
     }
+    
+    /**
+     * A normalized form and the string it was computed from; final fields, so it is safe
+     * to share between threads without locking
+     */
+    private static final class Normalized {
+        final String source;
+        final String value;
+        
+        private Normalized(String source, String value) {
+            this.source = source;
+            this.value = value;
+        }
+        
+        static Normalized of(String source) {
+            return new Normalized(source, source != null ? VendorText.normalize(source) : null);
+        }
+    }
 }
@@ -3,7 +3,9 @@ package com.weddingvendor.backend;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -14,7 +16,6 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * Servlet handling vendor booking operations
@@ -23,7 +24,7 @@ import com.google.gson.GsonBuilder;
 public class VendorBookingServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
     private static BookingSystem bookingSystem = new BookingSystem();
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson gson = new Gson();
     
     /**
      * @see HttpServlet#HttpServlet()
@@ -41,19 +42,75 @@ public class VendorBookingServlet extends HttpServlet {
         
         String pathInfo = request.getPathInfo();
         PrintWriter out = response.getWriter();
+        boolean pretty = JsonResponseWriter.isPretty(request);
         
         try {
-            if (pathInfo == null || pathInfo.equals("/")) {
+            // Optional service date window (yyyy-MM-dd) for calendar views
+            LocalDate from = dateParam(request, "from");
+            LocalDate to = dateParam(request, "to");
+            boolean windowed = from != null || to != null;
+            
+            // Optional keyset pagination in createdAt order: ?limit=&cursor=
+            String cursor = request.getParameter("cursor");
+            String limitParam = request.getParameter("limit");
+            Integer limit = limitParam != null ? Integer.valueOf(limitParam) : null;
+            boolean paged = cursor != null || limit != null;
+            if (paged && windowed) {
+                throw new IllegalArgumentException("limit/cursor cannot be combined with from/to");
+            }
+            
+            if ("/export".equals(pathInfo)) {
+                // Bulk export of every booking as newline-delimited JSON
+                response.setContentType(BookingNdjson.CONTENT_TYPE);
+                BookingNdjson.exportTo(out, bookingSystem);
+            } else if (pathInfo == null || pathInfo.equals("/")) {
                 // Get all bookings
-                List<Booking> allBookings = bookingSystem.getAllBookings();
-                out.print(gson.toJson(allBookings));
-                System.out.println("Returning all bookings: " + allBookings.size());
+                if (paged) {
+                    BookingPage page = bookingSystem.getBookingsPage(cursor, limit);
+                    JsonResponseWriter.writeValue(out, gson, page, pretty);
+                    System.out.println("Returning page of bookings: " + page.getBookings().size());
+                } else {
+                    List<Booking> allBookings = windowed
+                        ? bookingSystem.getBookingsBetween(from, to)
+                        : bookingSystem.getAllBookings();
+                    JsonResponseWriter.writeArray(out, gson, allBookings, pretty);
+                    System.out.println("Returning all bookings: " + allBookings.size());
+                }
             } else if (pathInfo.startsWith("/user/")) {
                 // Get bookings for a specific user
                 String userId = pathInfo.substring(6);
-                List<Booking> userBookings = bookingSystem.getUserBookings(userId);
-                out.print(gson.toJson(userBookings));
-                System.out.println("Found " + userBookings.size() + " bookings for user " + userId);
+                if (paged) {
+                    BookingPage page = bookingSystem.getUserBookingsPage(userId, cursor, limit);
+                    JsonResponseWriter.writeValue(out, gson, page, pretty);
+                    System.out.println("Found page of " + page.getBookings().size() + " bookings for user " + userId);
+                } else {
+                    List<Booking> userBookings = windowed
+                        ? bookingSystem.getUserBookingsBetween(userId, from, to)
+                        : bookingSystem.getUserBookings(userId);
+                    JsonResponseWriter.writeArray(out, gson, userBookings, pretty);
+                    System.out.println("Found " + userBookings.size() + " bookings for user " + userId);
+                }
+            } else if (pathInfo.endsWith("/availability")) {
+                // Free days of a vendor: /{vendorId}/availability or /vendor/{vendorId}/availability
+                String vendorId = pathInfo.substring(0, pathInfo.length() - "/availability".length());
+                vendorId = vendorId.startsWith("/vendor/") ? vendorId.substring(8) : vendorId.substring(1);
+                if (!vendorId.startsWith("vendor")) {
+                    vendorId = "vendor" + vendorId;
+                }
+                
+                if (from == null || to == null) {
+                    response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                    JsonResponseWriter.writeValue(out, gson, new ErrorResponse("Query parameters 'from' and 'to' are required (yyyy-MM-dd)"), pretty);
+                } else {
+                    try {
+                        List<String> freeDays = bookingSystem.getVendorAvailability(vendorId, from, to);
+                        JsonResponseWriter.writeValue(out, gson, new AvailabilityResponse(vendorId, from.toString(), to.toString(), freeDays), pretty);
+                        System.out.println("Found " + freeDays.size() + " free days for vendor " + vendorId);
+                    } catch (IllegalArgumentException e) {
+                        JsonResponseWriter.writeError(response, gson, HttpServletResponse.SC_BAD_REQUEST,
+                            new ErrorResponse("Invalid availability range: " + e.getMessage()), pretty, e);
+                    }
+                }
             } else {
                 // Check if it's a specific booking ID request
                 if (pathInfo.substring(1).startsWith("booking")) {
@@ -62,11 +119,11 @@ public class VendorBookingServlet extends HttpServlet {
                     Booking booking = bookingSystem.getBookingById(bookingId);
                     
                     if (booking != null) {
-                        out.print(gson.toJson(booking));
+                        JsonResponseWriter.writeValue(out, gson, booking, pretty);
                         System.out.println("Found booking: " + bookingId);
                     } else {
                         response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                        out.print(gson.toJson(new ErrorResponse("Booking not found: " + bookingId)));
+                        JsonResponseWriter.writeValue(out, gson, new ErrorResponse("Booking not found: " + bookingId), pretty);
                     }
                 } else {
                     // Get specific vendor bookings
@@ -77,19 +134,41 @@ public class VendorBookingServlet extends HttpServlet {
                         vendorId = "vendor" + vendorId;
                     }
                     
-                    List<Booking> vendorBookings = bookingSystem.getVendorBookings(vendorId);
-                    out.print(gson.toJson(vendorBookings));
-                    System.out.println("Found " + vendorBookings.size() + " bookings for vendor " + vendorId);
+                    if (paged) {
+                        BookingPage page = bookingSystem.getVendorBookingsPage(vendorId, cursor, limit);
+                        JsonResponseWriter.writeValue(out, gson, page, pretty);
+                        System.out.println("Found page of " + page.getBookings().size() + " bookings for vendor " + vendorId);
+                    } else {
+                        List<Booking> vendorBookings = windowed
+                            ? bookingSystem.getVendorBookingsBetween(vendorId, from, to)
+                            : bookingSystem.getVendorBookings(vendorId);
+                        JsonResponseWriter.writeArray(out, gson, vendorBookings, pretty);
+                        System.out.println("Found " + vendorBookings.size() + " bookings for vendor " + vendorId);
+                    }
                 }
             }
+        } catch (DateTimeParseException e) {
+            JsonResponseWriter.writeError(response, gson, HttpServletResponse.SC_BAD_REQUEST,
+                new ErrorResponse("Invalid date, expected yyyy-MM-dd: " + e.getParsedString()), pretty, e);
+        } catch (IllegalArgumentException e) {
+            JsonResponseWriter.writeError(response, gson, HttpServletResponse.SC_BAD_REQUEST,
+                new ErrorResponse("Invalid request: " + e.getMessage()), pretty, e);
         } catch (Exception e) {
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            out.print(gson.toJson(new ErrorResponse("Error retrieving bookings: " + e.getMessage())));
             e.printStackTrace();
+            JsonResponseWriter.writeError(response, gson, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                new ErrorResponse("Error retrieving bookings: " + e.getMessage()), pretty, e);
         }
         out.flush();
     }
 
+    /**
+     * Parse an optional yyyy-MM-dd query parameter
+     */
+    private static LocalDate dateParam(HttpServletRequest request, String name) {
+        String value = request.getParameter(name);
+        return value == null || value.isEmpty() ? null : LocalDate.parse(value);
+    }
+    
     /**
      * @see HttpServlet#doPost(HttpServletRequest request, HttpServletResponse response)
      */
@@ -97,8 +176,23 @@ public class VendorBookingServlet extends HttpServlet {
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         
+        String pathInfo = request.getPathInfo();
         PrintWriter out = response.getWriter();
         
+        if ("/import".equals(pathInfo)) {
+            // Bulk import from a newline-delimited JSON body, one booking per line
+            try {
+                BookingNdjson.Result result = BookingNdjson.importFrom(request.getReader(), bookingSystem);
+                out.print(gson.toJson(result));
+            } catch (Exception e) {
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                out.print(gson.toJson(new ErrorResponse("Error importing bookings: " + e.getMessage())));
+                e.printStackTrace();
+            }
+            out.flush();
+            return;
+        }
+        
         try {
             // Parse booking from request body
             String requestBody = request.getReader().lines().collect(Collectors.joining(System.lineSeparator()));
@@ -114,6 +208,9 @@ public class VendorBookingServlet extends HttpServlet {
             out.print(gson.toJson(new SuccessResponse("Booking created successfully", bookingId)));
             
             System.out.println("Created new booking with ID: " + bookingId + " for vendor: " + booking.getVendorId());
+        } catch (BookingConflictException e) {
+            response.setStatus(HttpServletResponse.SC_CONFLICT);
+            out.print(gson.toJson(new ErrorResponse(e.getMessage())));
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             out.print(gson.toJson(new ErrorResponse("Error creating booking: " + e.getMessage())));
@@ -156,6 +253,9 @@ public class VendorBookingServlet extends HttpServlet {
                 response.setStatus(HttpServletResponse.SC_NOT_FOUND);
                 out.print(gson.toJson(new ErrorResponse("Booking not found with ID: " + bookingId)));
             }
+        } catch (BookingConflictException e) {
+            response.setStatus(HttpServletResponse.SC_CONFLICT);
+            out.print(gson.toJson(new ErrorResponse(e.getMessage())));
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             out.print(gson.toJson(new ErrorResponse("Error updating booking: " + e.getMessage())));
@@ -220,4 +320,18 @@ public class VendorBookingServlet extends HttpServlet {
             this.error = error;
         }
     }
+    
+    class AvailabilityResponse {
+        private String vendorId;
+        private String from;
+        private String to;
+        private List<String> freeDays;
+        
+        public AvailabilityResponse(String vendorId, String from, String to, List<String> freeDays) {
+            this.vendorId = vendorId;
+            this.from = from;
+            this.to = to;
+            this.freeDays = freeDays;
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package com.weddingvendor.backend;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Index from a case-normalized attribute value to the vendors carrying it.
+ * A vendor can sit in several buckets, e.g. one per component of its location.
+ * Each bucket lists its vendors in catalog order, keyed by catalog position.
+ * The index is immutable: put and remove return a new index that shares every
+ * untouched bucket, and the untouched parts of touched ones, with this one.
+ */
+public final class VendorBucketIndex {
+    private final Function<Vendor, Set<String>> keyExtractor;
+    private final PersistentTreeMap<String, PersistentTreeMap<Long, Vendor>> buckets;
+    private final PersistentTreeMap<String, Entry> entriesById;
+    
+    /**
+     * Where a vendor is indexed: its keys and its catalog position
+     */
+    private static final class Entry {
+        final Set<String> keys;
+        final long position;
+        
+        Entry(Set<String> keys, long position) {
+            this.keys = keys;
+            this.position = position;
+        }
+    }
+    
+    public VendorBucketIndex(Function<Vendor, Set<String>> keyExtractor) {
+        this(keyExtractor, PersistentTreeMap.empty(), PersistentTreeMap.empty());
+    }
+    
+    private VendorBucketIndex(Function<Vendor, Set<String>> keyExtractor,
+                              PersistentTreeMap<String, PersistentTreeMap<Long, Vendor>> buckets,
+                              PersistentTreeMap<String, Entry> entriesById) {
+        this.keyExtractor = keyExtractor;
+        this.buckets = buckets;
+        this.entriesById = entriesById;
+    }
+    
+    /**
+     * An index of vendors with distinct ids by catalog position, built in one pass
+     */
+    public VendorBucketIndex withAll(SortedMap<Long, Vendor> byPosition) {
+        Map<String, TreeMap<Long, Vendor>> grouped = new TreeMap<>();
+        TreeMap<String, Entry> entries = new TreeMap<>();
+        for (Map.Entry<Long, Vendor> positioned : byPosition.entrySet()) {
+            Vendor vendor = positioned.getValue();
+            Set<String> keys = keyExtractor.apply(vendor);
+            for (String key : keys) {
+                grouped.computeIfAbsent(key, k -> new TreeMap<>()).put(positioned.getKey(), vendor);
+            }
+            entries.put(vendor.getId(), new Entry(keys, positioned.getKey()));
+        }
+        
+        TreeMap<String, PersistentTreeMap<Long, Vendor>> frozen = new TreeMap<>();
+        for (Map.Entry<String, TreeMap<Long, Vendor>> bucket : grouped.entrySet()) {
+            frozen.put(bucket.getKey(), PersistentTreeMap.of(bucket.getValue()));
+        }
+        return new VendorBucketIndex(keyExtractor, PersistentTreeMap.of(frozen), PersistentTreeMap.of(entries));
+    }
+    
+    /**
+     * The index with a vendor filed under its current keys at a catalog position,
+     * replacing wherever its id was indexed before
+     */
+    public VendorBucketIndex put(Vendor vendor, long position) {
+        VendorBucketIndex base = remove(vendor.getId());
+        Set<String> keys = keyExtractor.apply(vendor);
+        PersistentTreeMap<String, PersistentTreeMap<Long, Vendor>> updated = base.buckets;
+        for (String key : keys) {
+            PersistentTreeMap<Long, Vendor> bucket = updated.get(key);
+            if (bucket == null) {
+                bucket = PersistentTreeMap.empty();
+            }
+            updated = updated.put(key, bucket.put(position, vendor));
+        }
+        return new VendorBucketIndex(keyExtractor, updated, base.entriesById.put(vendor.getId(), new Entry(keys, position)));
+    }
+    
+    /**
+     * The index without the vendor indexed under the given id
+     */
+    public VendorBucketIndex remove(String id) {
+        Entry entry = entriesById.get(id);
+        if (entry == null) {
+            return this;
+        }
+        
+        PersistentTreeMap<String, PersistentTreeMap<Long, Vendor>> updated = buckets;
+        for (String key : entry.keys) {
+            PersistentTreeMap<Long, Vendor> bucket = updated.get(key);
+            if (bucket != null) {
+                bucket = bucket.remove(entry.position);
+                updated = bucket.isEmpty() ? updated.remove(key) : updated.put(key, bucket);
+            }
+        }
+        return new VendorBucketIndex(keyExtractor, updated, entriesById.remove(id));
+    }
+    
+    /**
+     * Vendors in a bucket, in catalog order (read-only)
+     */
+    public List<Vendor> get(String key) {
+        PersistentTreeMap<Long, Vendor> bucket = buckets.get(key);
+        return bucket != null ? bucket.values() : Collections.emptyList();
+    }
+    
+    /**
+     * Canonical form used for bucket keys: trimmed and lowercased
+     */
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+    
+    /**
+     * Key extractor for the category index
+     */
+    public static Set<String> categoryKeys(Vendor vendor) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (vendor.getCategory() != null) {
+            keys.add(normalize(vendor.getCategory()));
+        }
+        return keys;
+    }
+    
+    /**
+     * Key extractor for the location index: the full location plus each
+     * comma-separated component, so "Chicago, IL" is found by "chicago" and "il"
+     */
+    public static Set<String> locationKeys(Vendor vendor) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (vendor.getLocation() != null) {
+            keys.add(normalize(vendor.getLocation()));
+            for (String part : vendor.getLocation().split(",")) {
+                String key = normalize(part);
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+}
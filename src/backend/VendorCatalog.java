@@ -0,0 +1,234 @@
+package com.weddingvendor.backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Immutable version of the vendor catalog. VendorSystem derives a new one from the
+ * previous version after every mutation and publishes it atomically, so readers always
+ * see one consistent version without taking a lock. Every part of a version is a
+ * persistent tree, so put and remove copy O(log n) nodes per index and share the rest
+ * with the previous version. The column layout used by searches is built on first use.
+ */
+public final class VendorCatalog {
+    // Empty indexes that every catalog's indexes are derived from
+    private static final VendorSortIndex PRICE = new VendorSortIndex(Vendor::getMinPrice);
+    private static final VendorSortIndex RATING = new VendorSortIndex(Vendor::getRating);
+    private static final VendorBucketIndex CATEGORY = new VendorBucketIndex(VendorBucketIndex::categoryKeys);
+    private static final VendorBucketIndex LOCATION = new VendorBucketIndex(VendorBucketIndex::locationKeys);
+    
+    public static final VendorCatalog EMPTY = of(0, Collections.emptyList());
+    
+    private final long version;
+    private final long nextPosition;
+    private final PersistentTreeMap<Long, Vendor> byPosition;
+    private final PersistentTreeMap<String, Long> positions;
+    private final VendorSortIndex byPrice;
+    private final VendorSortIndex byRating;
+    private final VendorBucketIndex byCategory;
+    private final VendorBucketIndex byLocation;
+    private final VendorSearchIndex search;
+    private volatile VendorColumns columns;
+    private volatile VendorFacets facets;
+    
+    private VendorCatalog(long version, long nextPosition, PersistentTreeMap<Long, Vendor> byPosition,
+                          PersistentTreeMap<String, Long> positions, VendorSortIndex byPrice, VendorSortIndex byRating,
+                          VendorBucketIndex byCategory, VendorBucketIndex byLocation, VendorSearchIndex search) {
+        this.version = version;
+        this.nextPosition = nextPosition;
+        this.byPosition = byPosition;
+        this.positions = positions;
+        this.byPrice = byPrice;
+        this.byRating = byRating;
+        this.byCategory = byCategory;
+        this.byLocation = byLocation;
+        this.search = search;
+    }
+    
+    /**
+     * A catalog of the vendors in order, with every index built in one pass. A vendor whose
+     * id appeared earlier replaces that vendor in place, as log replay does.
+     */
+    public static VendorCatalog of(long version, List<Vendor> vendors) {
+        TreeMap<Long, Vendor> ordered = new TreeMap<>();
+        TreeMap<String, Long> ids = new TreeMap<>();
+        long position = 0;
+        for (Vendor vendor : vendors) {
+            Long existing = ids.get(vendor.getId());
+            if (existing != null) {
+                ordered.put(existing, vendor);
+            } else {
+                ordered.put(position, vendor);
+                ids.put(vendor.getId(), position++);
+            }
+        }
+        return new VendorCatalog(version, position, PersistentTreeMap.of(ordered), PersistentTreeMap.of(ids),
+            PRICE.withAll(ordered.values()), RATING.withAll(ordered.values()),
+            CATEGORY.withAll(ordered), LOCATION.withAll(ordered), new VendorSearchIndex().withAll(ordered));
+    }
+    
+    /**
+     * The next version with a vendor added at the end, or replacing the vendor with its id
+     * in place
+     */
+    public VendorCatalog put(Vendor vendor) {
+        return replace(vendor.getId(), vendor);
+    }
+    
+    /**
+     * The next version with the vendor indexed under id replaced, in place, by a vendor
+     * that may carry a different id; the vendor is added at the end when id is unknown
+     */
+    public VendorCatalog replace(String id, Vendor vendor) {
+        Long existing = positions.get(id);
+        long position = existing != null ? existing : nextPosition;
+        VendorCatalog base = existing != null && !id.equals(vendor.getId()) ? remove(id) : this;
+        
+        return new VendorCatalog(version + 1, Math.max(nextPosition, position + 1),
+            base.byPosition.put(position, vendor), base.positions.put(vendor.getId(), position),
+            base.byPrice.put(vendor), base.byRating.put(vendor),
+            base.byCategory.put(vendor, position), base.byLocation.put(vendor, position),
+            base.search.put(vendor, position));
+    }
+    
+    /**
+     * The next version without the vendor with the given id; this version when it is absent
+     */
+    public VendorCatalog remove(String id) {
+        Long position = positions.get(id);
+        if (position == null) {
+            return this;
+        }
+        return new VendorCatalog(version + 1, nextPosition, byPosition.remove(position), positions.remove(id),
+            byPrice.remove(id), byRating.remove(id), byCategory.remove(id), byLocation.remove(id),
+            search.remove(id));
+    }
+    
+    /**
+     * Monotonic version number, bumped on every published mutation
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    public int size() {
+        return byPosition.size();
+    }
+    
+    /**
+     * All vendors in catalog order (read-only)
+     */
+    public List<Vendor> getVendors() {
+        return byPosition.values();
+    }
+    
+    public Vendor getById(String id) {
+        Long position = positions.get(id);
+        return position != null ? byPosition.get(position) : null;
+    }
+    
+    /**
+     * Numeric attributes laid out column-wise, indexed by position in getVendors(); built
+     * by the first search of this version, so writes never pay for it
+     */
+    public VendorColumns getColumns() {
+        VendorColumns built = columns;
+        if (built == null) {
+            // Immutable once built, so a racing duplicate build is harmless
+            built = new VendorColumns(getVendors());
+            columns = built;
+        }
+        return built;
+    }
+    
+    /**
+     * Facet bitsets over the columns, built by the first search that asks for facet counts
+     */
+    public VendorFacets getFacets() {
+        VendorFacets built = facets;
+        if (built == null) {
+            // Immutable once built, so a racing duplicate build is harmless
+            built = new VendorFacets(getColumns());
+            facets = built;
+        }
+        return built;
+    }
+    
+    /**
+     * A page of vendors ordered by minPrice, ties broken by id
+     */
+    public List<Vendor> sortedByPrice(int offset, int limit, boolean descending) {
+        return page(byPrice.ascending(), offset, limit, descending);
+    }
+    
+    /**
+     * A page of vendors ordered by rating, ties broken by id
+     */
+    public List<Vendor> sortedByRating(int offset, int limit, boolean descending) {
+        return page(byRating.ascending(), offset, limit, descending);
+    }
+    
+    /**
+     * Vendors in a category bucket (read-only)
+     */
+    public List<Vendor> byCategory(String category) {
+        return byCategory.get(VendorBucketIndex.normalize(category));
+    }
+    
+    /**
+     * Vendors in a location bucket (read-only)
+     */
+    public List<Vendor> byLocation(String location) {
+        return byLocation.get(VendorBucketIndex.normalize(location));
+    }
+    
+    /**
+     * Full-text search in the index's query syntax, where words separated by OR may match
+     * individually; returns null when the query has no searchable terms
+     */
+    public List<Vendor> search(String query) {
+        return vendors(search.search(query));
+    }
+    
+    /**
+     * Full-text search; returns null when the query has no searchable terms
+     */
+    public List<Vendor> search(String query, boolean matchAll) {
+        return vendors(search.search(query, matchAll));
+    }
+    
+    private List<Vendor> vendors(List<String> ids) {
+        if (ids == null) {
+            return null;
+        }
+        
+        List<Vendor> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            results.add(getById(id));
+        }
+        return results;
+    }
+    
+    /**
+     * Slice a page out of an ascending list, reading it backwards for descending order
+     */
+    private static List<Vendor> page(List<Vendor> ascending, int offset, int limit, boolean descending) {
+        int size = ascending.size();
+        if (offset < 0 || limit <= 0 || offset >= size) {
+            return Collections.emptyList();
+        }
+        
+        int end = (int) Math.min((long) offset + limit, size);
+        if (!descending) {
+            return ascending.subList(offset, end);
+        }
+        
+        List<Vendor> page = new ArrayList<>(end - offset);
+        for (int i = size - 1 - offset; i >= size - end; i--) {
+            page.add(ascending.get(i));
+        }
+        return page;
+    }
+}
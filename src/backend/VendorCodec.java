@@ -0,0 +1,127 @@
+package com.weddingvendor.backend;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary encoding of Vendor and Service records for the vendor log and snapshot files
+ */
+public final class VendorCodec {
+    private static final byte NULL_STRING = 0;
+    private static final byte SHORT_STRING = 1;
+    private static final byte LONG_STRING = 2;
+    // writeUTF takes at most 65535 encoded bytes, and a char encodes to at most three
+    private static final int MAX_SHORT_STRING = 65535 / 3;
+    
+    private VendorCodec() {
+    }
+    
+    /**
+     * Write a vendor and its services
+     */
+    public static void writeVendor(DataOutput out, Vendor vendor) throws IOException {
+        writeString(out, vendor.getId());
+        writeString(out, vendor.getName());
+        writeString(out, vendor.getCategory());
+        out.writeDouble(vendor.getRating());
+        out.writeInt(vendor.getReviewCount());
+        writeString(out, vendor.getImage());
+        out.writeDouble(vendor.getMinPrice());
+        out.writeDouble(vendor.getMaxPrice());
+        writeString(out, vendor.getPriceDisplay());
+        writeString(out, vendor.getLocation());
+        writeString(out, vendor.getDescription());
+        
+        List<Service> services = vendor.getServices();
+        int count = services != null ? services.size() : 0;
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            writeService(out, services.get(i));
+        }
+    }
+    
+    /**
+     * Read a vendor written by writeVendor
+     */
+    public static Vendor readVendor(DataInput in) throws IOException {
+        Vendor vendor = new Vendor();
+        vendor.setId(readString(in));
+        vendor.setName(readString(in));
+        vendor.setCategory(readString(in));
+        vendor.setRating(in.readDouble());
+        vendor.setReviewCount(in.readInt());
+        vendor.setImage(readString(in));
+        double minPrice = in.readDouble();
+        double maxPrice = in.readDouble();
+        vendor.restorePrices(minPrice, maxPrice, readString(in));
+        vendor.setLocation(readString(in));
+        vendor.setDescription(readString(in));
+        
+        int count = in.readInt();
+        List<Service> services = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            services.add(readService(in));
+        }
+        vendor.setServices(services);
+        return vendor;
+    }
+    
+    private static void writeService(DataOutput out, Service service) throws IOException {
+        writeString(out, service.getId());
+        writeString(out, service.getName());
+        writeString(out, service.getCategory());
+        writeString(out, service.getDescription());
+        out.writeDouble(service.getPrice());
+        writeString(out, service.getDuration());
+    }
+    
+    private static Service readService(DataInput in) throws IOException {
+        return new Service(readString(in), readString(in), readString(in), readString(in),
+            in.readDouble(), readString(in));
+    }
+    
+    /**
+     * Write a nullable string. Short strings keep the original writeUTF form; longer ones,
+     * which writeUTF cannot hold, are written as an int length and UTF-8 bytes.
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_STRING);
+        } else if (value.length() <= MAX_SHORT_STRING) {
+            out.writeByte(SHORT_STRING);
+            out.writeUTF(value);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(LONG_STRING);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+    
+    /**
+     * Read a nullable string written by writeString
+     */
+    public static String readString(DataInput in) throws IOException {
+        byte kind = in.readByte();
+        switch (kind) {
+            case NULL_STRING:
+                return null;
+            case SHORT_STRING:
+                return in.readUTF();
+            case LONG_STRING:
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Invalid string length: " + length);
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            default:
+                throw new IOException("Invalid string marker: " + kind);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.weddingvendor.backend;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Columnar copy of the numeric vendor attributes of one catalog version.
+ * Position i in every column (the ordinal) is the i-th vendor in catalog order, so
+ * search filters run as flat loops over primitive arrays and Vendor objects are only
+ * touched for the matches that are returned. The range bitsets are only computed for
+ * the facet buckets, when a search first asks for facet counts.
+ */
+public final class VendorColumns {
+    private final Vendor[] vendors;
+    private final double[] minPrice;
+    private final double[] maxPrice;
+    private final double[] rating;
+    private final int[] reviewCount;
+    
+    public VendorColumns(List<Vendor> catalogOrder) {
+        int size = catalogOrder.size();
+        this.vendors = catalogOrder.toArray(new Vendor[0]);
+        this.minPrice = new double[size];
+        this.maxPrice = new double[size];
+        this.rating = new double[size];
+        this.reviewCount = new int[size];
+        
+        for (int i = 0; i < size; i++) {
+            Vendor vendor = vendors[i];
+            minPrice[i] = vendor.getMinPrice();
+            maxPrice[i] = vendor.getMaxPrice();
+            rating[i] = vendor.getRating();
+            reviewCount[i] = vendor.getReviewCount();
+        }
+    }
+    
+    public int size() {
+        return vendors.length;
+    }
+    
+    public Vendor vendor(int ordinal) {
+        return vendors[ordinal];
+    }
+    
+    public double minPrice(int ordinal) {
+        return minPrice[ordinal];
+    }
+    
+    public double maxPrice(int ordinal) {
+        return maxPrice[ordinal];
+    }
+    
+    public double rating(int ordinal) {
+        return rating[ordinal];
+    }
+    
+    public int reviewCount(int ordinal) {
+        return reviewCount[ordinal];
+    }
+    
+    /**
+     * Vendors whose minPrice or maxPrice falls inside [low, high]
+     */
+    public BitSet priceRange(double low, double high) {
+        long[] words = new long[(vendors.length + 63) >>> 6];
+        for (int i = 0; i < vendors.length; i++) {
+            double min = minPrice[i];
+            double max = maxPrice[i];
+            boolean match = (min >= low & min <= high) | (max >= low & max <= high);
+            words[i >>> 6] |= (match ? 1L : 0L) << i;
+        }
+        return BitSet.valueOf(words);
+    }
+    
+    /**
+     * Vendors rated at least minRating
+     */
+    public BitSet minRating(double minRating) {
+        long[] words = new long[(vendors.length + 63) >>> 6];
+        for (int i = 0; i < vendors.length; i++) {
+            words[i >>> 6] |= (rating[i] >= minRating ? 1L : 0L) << i;
+        }
+        return BitSet.valueOf(words);
+    }
+}
@@ -0,0 +1,113 @@
+package com.weddingvendor.backend;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet bitsets of one catalog version: for every category, price bucket and rating
+ * bucket, the ordinals of the vendors in it as bitset words. A search counts a facet
+ * value by intersecting its words with the words of the matching vendors, so all counts
+ * come out of one filter pass. Bucket labels are valid priceRange and minRating values,
+ * and a bucket holds exactly the vendors that filter would keep.
+ */
+public final class VendorFacets {
+    /** Facet names, matching the search parameters they refine */
+    public static final String CATEGORY = "category";
+    public static final String PRICE_RANGE = "priceRange";
+    public static final String MIN_RATING = "minRating";
+    
+    private static final int[][] PRICE_BUCKETS = {
+        {0, 500}, {500, 1000}, {1000, 2500}, {2500, 5000}, {5000, 1000000}
+    };
+    private static final String[] RATING_BUCKETS = {"4.5", "4", "3", "2", "1"};
+    
+    private final int wordCount;
+    private final String[] categories;
+    private final long[][] categoryWords;
+    private final String[] priceLabels;
+    private final long[][] priceWords;
+    private final long[][] ratingWords;
+    
+    public VendorFacets(VendorColumns columns) {
+        this.wordCount = words(columns.size());
+        
+        // Categories group under the category index's normalized key (trimmed, case-
+        // insensitive), labelled with the first spelling seen
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        List<String> labels = new ArrayList<>();
+        List<long[]> categoryBits = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String category = columns.vendor(i).getCategory();
+            String key = VendorBucketIndex.normalize(category);
+            if (key.isEmpty()) {
+                continue;
+            }
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                slot = labels.size();
+                slots.put(key, slot);
+                labels.add(category.trim());
+                categoryBits.add(new long[wordCount]);
+            }
+            categoryBits.get(slot)[i >>> 6] |= 1L << i;
+        }
+        this.categories = labels.toArray(new String[0]);
+        this.categoryWords = categoryBits.toArray(new long[0][]);
+        
+        this.priceLabels = new String[PRICE_BUCKETS.length];
+        this.priceWords = new long[PRICE_BUCKETS.length][];
+        for (int b = 0; b < PRICE_BUCKETS.length; b++) {
+            priceLabels[b] = PRICE_BUCKETS[b][0] + "-" + PRICE_BUCKETS[b][1];
+            priceWords[b] = toWords(columns.priceRange(PRICE_BUCKETS[b][0], PRICE_BUCKETS[b][1]));
+        }
+        
+        this.ratingWords = new long[RATING_BUCKETS.length][];
+        for (int b = 0; b < RATING_BUCKETS.length; b++) {
+            ratingWords[b] = toWords(columns.minRating(Double.parseDouble(RATING_BUCKETS[b])));
+        }
+    }
+    
+    /**
+     * Bitset words able to hold every ordinal of the catalog
+     */
+    public long[] newWords() {
+        return new long[wordCount];
+    }
+    
+    /**
+     * Counts per facet value, each facet counted over its own set of matching ordinals
+     */
+    public Map<String, Map<String, Integer>> count(long[] categoryBase, long[] priceBase, long[] ratingBase) {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        counts.put(CATEGORY, count(categories, categoryWords, categoryBase));
+        counts.put(PRICE_RANGE, count(priceLabels, priceWords, priceBase));
+        counts.put(MIN_RATING, count(RATING_BUCKETS, ratingWords, ratingBase));
+        return counts;
+    }
+    
+    private static Map<String, Integer> count(String[] labels, long[][] words, long[] base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int v = 0; v < labels.length; v++) {
+            long[] bits = words[v];
+            int count = 0;
+            for (int w = 0; w < bits.length; w++) {
+                count += Long.bitCount(bits[w] & base[w]);
+            }
+            counts.put(labels[v], count);
+        }
+        return counts;
+    }
+    
+    private long[] toWords(BitSet bits) {
+        // toLongArray drops trailing empty words
+        return Arrays.copyOf(bits.toLongArray(), wordCount);
+    }
+    
+    private static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+}
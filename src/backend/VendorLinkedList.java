@@ -2,18 +2,32 @@
 package com.weddingvendor.backend;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Custom LinkedList implementation for storing wedding vendor details
+ * Custom LinkedList implementation for storing wedding vendor details.
+ * Keeps a tail reference and an id -> node index so that appends and
+ * lookups, updates and removals by id run in constant time.
  */
 public class VendorLinkedList {
+    public static final Comparator<Vendor> PRICE_ASC = Comparator.comparingDouble(Vendor::getMinPrice);
+    public static final Comparator<Vendor> PRICE_DESC = PRICE_ASC.reversed();
+    public static final Comparator<Vendor> RATING_DESC = Comparator.comparingDouble(Vendor::getRating).reversed();
+    public static final Comparator<Vendor> REVIEW_COUNT_DESC = Comparator.comparingInt(Vendor::getReviewCount).reversed();
+    
     private VendorNode head;
+    private VendorNode tail;
     private int size;
+    private final Map<String, VendorNode> index;
     
     public VendorLinkedList() {
         this.head = null;
+        this.tail = null;
         this.size = 0;
+        this.index = new HashMap<>();
     }
     
     /**
@@ -25,11 +39,14 @@ public class VendorLinkedList {
         if (head == null) {
             head = newNode;
         } else {
-            VendorNode current = head;
-            while (current.getNext() != null) {
-                current = current.getNext();
-            }
-            current.setNext(newNode);
+            tail.setNext(newNode);
+            newNode.setPrev(tail);
+        }
+        tail = newNode;
+        
+        // Ids are expected to be unique; the first node added for an id wins
+        if (vendor != null && vendor.getId() != null) {
+            index.putIfAbsent(vendor.getId(), newNode);
         }
         
         size++;
@@ -39,71 +56,34 @@ public class VendorLinkedList {
      * Get vendor at specific index
      */
     public Vendor get(int index) {
-        if (index < 0 || index >= size) {
-            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
-        }
-        
-        VendorNode current = head;
-        for (int i = 0; i < index; i++) {
-            current = current.getNext();
-        }
-        
-        return current.getData();
+        return nodeAt(index).getData();
     }
     
     /**
      * Remove vendor at specific index
      */
     public void remove(int index) {
-        if (index < 0 || index >= size) {
-            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
-        }
-        
-        if (index == 0) {
-            head = head.getNext();
-        } else {
-            VendorNode current = head;
-            for (int i = 0; i < index - 1; i++) {
-                current = current.getNext();
-            }
-            current.setNext(current.getNext().getNext());
-        }
-        
-        size--;
+        unlink(nodeAt(index));
     }
     
     /**
      * Remove vendor by id
      */
     public boolean removeById(String id) {
-        if (head == null) {
+        VendorNode node = index.get(id);
+        if (node == null) {
             return false;
         }
         
-        if (head.getData().getId().equals(id)) {
-            head = head.getNext();
-            size--;
-            return true;
-        }
-        
-        VendorNode current = head;
-        while (current.getNext() != null) {
-            if (current.getNext().getData().getId().equals(id)) {
-                current.setNext(current.getNext().getNext());
-                size--;
-                return true;
-            }
-            current = current.getNext();
-        }
-        
-        return false;
+        unlink(node);
+        return true;
     }
     
     /**
      * Convert LinkedList to ArrayList
      */
     public List<Vendor> toList() {
-        List<Vendor> list = new ArrayList<>();
+        List<Vendor> list = new ArrayList<>(size);
         VendorNode current = head;
         
         while (current != null) {
@@ -118,33 +98,92 @@ public class VendorLinkedList {
      * Get vendor by id
      */
     public Vendor getById(String id) {
-        VendorNode current = head;
+        VendorNode node = index.get(id);
+        return node != null ? node.getData() : null;
+    }
+    
+    /**
+     * Update vendor by id
+     */
+    public boolean updateById(String id, Vendor updatedVendor) {
+        VendorNode node = index.get(id);
+        if (node == null) {
+            return false;
+        }
         
-        while (current != null) {
-            if (current.getData().getId().equals(id)) {
-                return current.getData();
+        node.setData(updatedVendor);
+        
+        // Re-key the node if the replacement carries a different id
+        String newId = updatedVendor != null ? updatedVendor.getId() : null;
+        if (!id.equals(newId)) {
+            index.remove(id);
+            if (newId != null) {
+                index.putIfAbsent(newId, node);
             }
-            current = current.getNext();
         }
         
-        return null;
+        return true;
     }
     
     /**
-     * Update vendor by id
+     * Check if a vendor with the given id is in the list
      */
-    public boolean updateById(String id, Vendor updatedVendor) {
-        VendorNode current = head;
+    public boolean containsId(String id) {
+        return index.containsKey(id);
+    }
+    
+    /**
+     * Find the node at a position, walking from whichever end is closer
+     */
+    private VendorNode nodeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
         
-        while (current != null) {
-            if (current.getData().getId().equals(id)) {
-                current.setData(updatedVendor);
-                return true;
+        VendorNode current;
+        if (index < size / 2) {
+            current = head;
+            for (int i = 0; i < index; i++) {
+                current = current.getNext();
             }
-            current = current.getNext();
+        } else {
+            current = tail;
+            for (int i = size - 1; i > index; i--) {
+                current = current.getPrev();
+            }
+        }
+        
+        return current;
+    }
+    
+    /**
+     * Detach a node from the chain and drop it from the id index
+     */
+    private void unlink(VendorNode node) {
+        VendorNode prev = node.getPrev();
+        VendorNode next = node.getNext();
+        
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.setNext(next);
         }
         
-        return false;
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.setPrev(prev);
+        }
+        
+        node.setNext(null);
+        node.setPrev(null);
+        
+        Vendor data = node.getData();
+        if (data != null && data.getId() != null && index.get(data.getId()) == node) {
+            index.remove(data.getId());
+        }
+        
+        size--;
     }
     
     /**
@@ -162,92 +201,88 @@ public class VendorLinkedList {
     }
     
     /**
-     * Apply bubble sort to sort vendors by price (minPrice)
+     * Sort vendors by price (minPrice), lowest first
      */
     public void bubbleSortByPrice() {
-        if (size <= 1) {
-            return;
-        }
-        
-        boolean swapped;
-        VendorNode ptr1;
-        VendorNode lptr = null;
-        
-        do {
-            swapped = false;
-            ptr1 = head;
-            
-            while (ptr1.getNext() != lptr) {
-                if (ptr1.getData().getMinPrice() > ptr1.getNext().getData().getMinPrice()) {
-                    // Swap data
-                    Vendor temp = ptr1.getData();
-                    ptr1.setData(ptr1.getNext().getData());
-                    ptr1.getNext().setData(temp);
-                    swapped = true;
-                }
-                ptr1 = ptr1.getNext();
-            }
-            lptr = ptr1;
-        } while (swapped);
+        sort(PRICE_ASC);
     }
     
     /**
-     * Apply bubble sort to sort vendors by price in descending order
+     * Sort vendors by price in descending order
      */
     public void bubbleSortByPriceDesc() {
+        sort(PRICE_DESC);
+    }
+    
+    /**
+     * Sort vendors by rating, highest first
+     */
+    public void bubbleSortByRating() {
+        sort(RATING_DESC);
+    }
+    
+    /**
+     * Stable merge sort that relinks the nodes in place instead of swapping data.
+     * Runs in O(n log n); combine comparators with thenComparing for multi-key
+     * orderings, e.g. RATING_DESC.thenComparing(REVIEW_COUNT_DESC).
+     */
+    public void sort(Comparator<Vendor> comparator) {
         if (size <= 1) {
             return;
         }
         
-        boolean swapped;
-        VendorNode ptr1;
-        VendorNode lptr = null;
-        
-        do {
-            swapped = false;
-            ptr1 = head;
-            
-            while (ptr1.getNext() != lptr) {
-                if (ptr1.getData().getMinPrice() < ptr1.getNext().getData().getMinPrice()) {
-                    // Swap data
-                    Vendor temp = ptr1.getData();
-                    ptr1.setData(ptr1.getNext().getData());
-                    ptr1.getNext().setData(temp);
-                    swapped = true;
-                }
-                ptr1 = ptr1.getNext();
-            }
-            lptr = ptr1;
-        } while (swapped);
+        head = mergeSort(head, size, comparator);
+        
+        // Merging only maintains the next links, so rebuild prev links and tail
+        VendorNode prev = null;
+        VendorNode current = head;
+        while (current != null) {
+            current.setPrev(prev);
+            prev = current;
+            current = current.getNext();
+        }
+        tail = prev;
     }
     
     /**
-     * Apply bubble sort to sort vendors by rating
+     * Sort a chain of the given length and return its new head
      */
-    public void bubbleSortByRating() {
-        if (size <= 1) {
-            return;
+    private static VendorNode mergeSort(VendorNode first, int length, Comparator<Vendor> comparator) {
+        if (length <= 1) {
+            first.setNext(null);
+            return first;
         }
         
-        boolean swapped;
-        VendorNode ptr1;
-        VendorNode lptr = null;
-        
-        do {
-            swapped = false;
-            ptr1 = head;
-            
-            while (ptr1.getNext() != lptr) {
-                if (ptr1.getData().getRating() < ptr1.getNext().getData().getRating()) {
-                    // Swap data
-                    Vendor temp = ptr1.getData();
-                    ptr1.setData(ptr1.getNext().getData());
-                    ptr1.getNext().setData(temp);
-                    swapped = true;
-                }
-                ptr1 = ptr1.getNext();
+        int leftLength = length / 2;
+        VendorNode middle = first;
+        for (int i = 0; i < leftLength; i++) {
+            middle = middle.getNext();
+        }
+        
+        VendorNode right = mergeSort(middle, length - leftLength, comparator);
+        VendorNode left = mergeSort(first, leftLength, comparator);
+        return merge(left, right, comparator);
+    }
+    
+    /**
+     * Merge two sorted chains, taking from the left on ties to stay stable
+     */
+    private static VendorNode merge(VendorNode left, VendorNode right, Comparator<Vendor> comparator) {
+        VendorNode dummy = new VendorNode(null);
+        VendorNode last = dummy;
+        
+        while (left != null && right != null) {
+            if (comparator.compare(left.getData(), right.getData()) <= 0) {
+                last.setNext(left);
+                left = left.getNext();
+            } else {
+                last.setNext(right);
+                right = right.getNext();
             }
-            lptr = ptr1;
-        } while (swapped);
+            last = last.getNext();
+        }
+        last.setNext(left != null ? left : right);
+        
+        return dummy.getNext();
     }
 }
@@ -0,0 +1,242 @@
+package com.weddingvendor.backend;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, checksummed log of vendor mutations.
+ * Each record is [int length][long crc32][byte type][payload], where a PUT payload
+ * is a full vendor and a DELETE_ID payload is the vendor id. Replaying the log on top
+ * of the latest snapshot reproduces the catalog.
+ */
+public class VendorLog {
+    private static final byte PUT = 1;
+    private static final byte DELETE_ID = 3;
+    
+    /**
+     * Receives records while the log is replayed
+     */
+    public interface Replay {
+        void put(Vendor vendor);
+        
+        void delete(String id);
+    }
+    
+    private final File file;
+    private FileChannel channel;
+    private int recordCount;
+    private long markPosition;
+    private int markRecordCount;
+    
+    public VendorLog(File file) {
+        this.file = file;
+    }
+    
+    /**
+     * Replay every intact record, cut off a torn, corrupt or undecodable tail and open the
+     * log for appending
+     */
+    public int open(Replay replay) throws IOException {
+        long validLength = 0;
+        recordCount = 0;
+        
+        if (file.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                while (true) {
+                    byte[] body;
+                    long crc;
+                    try {
+                        int length = in.readInt();
+                        crc = in.readLong();
+                        if (length <= 0 || length > file.length()) {
+                            break;
+                        }
+                        body = new byte[length];
+                        in.readFully(body);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    
+                    if (checksum(body) != crc) {
+                        System.err.println("Vendor log checksum mismatch at offset " + validLength + ", discarding tail");
+                        break;
+                    }
+                    
+                    // A record with a valid checksum can still fail to decode, e.g. one written
+                    // by a newer version; it ends replay the same way a torn record does
+                    Record record;
+                    try {
+                        record = decode(body);
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("Undecodable vendor log record at offset " + validLength + ", discarding tail: " + e);
+                        break;
+                    }
+                    apply(record, replay);
+                    validLength += 12 + body.length;
+                    recordCount++;
+                }
+            }
+        }
+        
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            System.err.println("Truncating vendor log from " + channel.size() + " to " + validLength + " bytes");
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+        return recordCount;
+    }
+    
+    /**
+     * Append an add or update of a vendor
+     */
+    public void appendPut(Vendor vendor) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(PUT);
+        VendorCodec.writeVendor(out, vendor);
+        append(bytes.toByteArray());
+    }
+    
+    /**
+     * Append a vendor deletion
+     */
+    public void appendDelete(String id) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(DELETE_ID);
+        VendorCodec.writeString(out, id);
+        append(bytes.toByteArray());
+    }
+    
+    /**
+     * Remember the current end of the log, e.g. just before the catalog is copied for a snapshot
+     */
+    public void mark() throws IOException {
+        ensureOpen();
+        markPosition = channel.position();
+        markRecordCount = recordCount;
+    }
+    
+    /**
+     * Drop the records before the mark once a snapshot covers them. Records appended
+     * after the mark are kept; the shortened log replaces the old one atomically.
+     */
+    public void discardBeforeMark() throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = markPosition;
+            long end = channel.position();
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+            out.force(true);
+        }
+        
+        // The channel is reopened even if the move fails, so appends keep working on the
+        // old, complete log
+        channel.close();
+        boolean moved = false;
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            if (!moved) {
+                tmp.delete();
+            }
+        }
+        
+        recordCount -= markRecordCount;
+        markPosition = 0;
+        markRecordCount = 0;
+    }
+    
+    /**
+     * Number of records currently in the log
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+    
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+    
+    private void ensureOpen() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            throw new IOException("Vendor log is not open: " + file);
+        }
+    }
+    
+    private void append(byte[] body) throws IOException {
+        ensureOpen();
+        ByteBuffer record = ByteBuffer.allocate(12 + body.length);
+        record.putInt(body.length);
+        record.putLong(checksum(body));
+        record.put(body);
+        record.flip();
+        
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        channel.force(false);
+        recordCount++;
+    }
+    
+    /**
+     * A decoded record: the vendor of a PUT, or the id of a DELETE_ID
+     */
+    private static final class Record {
+        private final Vendor vendor;
+        private final String deletedId;
+        
+        private Record(Vendor vendor, String deletedId) {
+            this.vendor = vendor;
+            this.deletedId = deletedId;
+        }
+    }
+    
+    private static Record decode(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        if (type == PUT) {
+            return new Record(VendorCodec.readVendor(in), null);
+        } else if (type == DELETE_ID) {
+            return new Record(null, VendorCodec.readString(in));
+        } else {
+            throw new IOException("Unknown vendor log record type: " + type);
+        }
+    }
+    
+    private static void apply(Record record, Replay replay) {
+        if (record.vendor != null) {
+            replay.put(record.vendor);
+        } else {
+            replay.delete(record.deletedId);
+        }
+    }
+    
+    private static long checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        return crc.getValue();
+    }
+}
@@ -10,10 +10,12 @@ public class VendorNode implements Serializable {
     private static final long serialVersionUID = 1L;
     private Vendor data;
     private VendorNode next;
+    private VendorNode prev;
     
     public VendorNode(Vendor data) {
         this.data = data;
         this.next = null;
+        this.prev = null;
     }
     
     public Vendor getData() {
@@ -32,6 +34,14 @@ public class VendorNode implements Serializable {
         this.next = next;
     }
     
+    public VendorNode getPrev() {
+        return prev;
+    }
+    
+    public void setPrev(VendorNode prev) {
+        this.prev = prev;
+    }
+    
     /**
      * Helper method to traverse to the end of the list
      * @return the last node in the list
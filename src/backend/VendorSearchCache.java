@@ -0,0 +1,154 @@
+package com.weddingvendor.backend;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded LRU cache of vendor search results, keyed on the canonical search parameters.
+ * Entries are evicted least recently used first once either the entry count or the total
+ * weight (e.g. the number of vendors held) passes its limit. Every entry belongs to one
+ * catalog version: the first lookup with a newer version drops them all, so a result is
+ * never served after an add, update or delete, and is kept for as long as none happens.
+ */
+public final class VendorSearchCache<R> {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToIntFunction<R> weigher;
+    private final LinkedHashMap<String, Entry<R>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long version = Long.MIN_VALUE;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    
+    private static final class Entry<R> {
+        final R result;
+        final int weight;
+        
+        Entry(R result, int weight) {
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+    
+    public VendorSearchCache(int maxEntries, long maxWeight, ToIntFunction<R> weigher) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+    
+    /**
+     * The cached result for a key at a catalog version, or null on a miss
+     */
+    public synchronized R get(String key, long catalogVersion) {
+        advance(catalogVersion);
+        Entry<R> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+    
+    /**
+     * Cache a result computed against a catalog version. Results of an older version than
+     * the cache has already seen, or heavier than the whole cache, are not kept.
+     */
+    public synchronized void put(String key, long catalogVersion, R result) {
+        advance(catalogVersion);
+        int resultWeight = Math.max(1, weigher.applyAsInt(result));
+        if (catalogVersion != version || resultWeight > maxWeight) {
+            return;
+        }
+        Entry<R> previous = entries.put(key, new Entry<>(result, resultWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += resultWeight;
+        
+        Iterator<Entry<R>> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+    
+    /**
+     * Drop all entries once a newer catalog version is seen
+     */
+    private void advance(long catalogVersion) {
+        if (catalogVersion > version) {
+            if (!entries.isEmpty()) {
+                entries.clear();
+                invalidations++;
+            }
+            weight = 0;
+            version = catalogVersion;
+        }
+    }
+    
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), weight, version);
+    }
+    
+    /**
+     * Point-in-time cache statistics
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int entries;
+        private final long weight;
+        private final long catalogVersion;
+        private final double hitRatio;
+        
+        Stats(long hits, long misses, long evictions, long invalidations, int entries, long weight, long catalogVersion) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.weight = weight;
+            this.catalogVersion = catalogVersion;
+            this.hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+        
+        public long getHits() {
+            return hits;
+        }
+        
+        public long getMisses() {
+            return misses;
+        }
+        
+        public long getEvictions() {
+            return evictions;
+        }
+        
+        public long getInvalidations() {
+            return invalidations;
+        }
+        
+        public int getEntries() {
+            return entries;
+        }
+        
+        public long getWeight() {
+            return weight;
+        }
+        
+        public long getCatalogVersion() {
+            return catalogVersion;
+        }
+        
+        public double getHitRatio() {
+            return hitRatio;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.weddingvendor.backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted full-text index over vendor name, description, category and service names.
+ * Terms are kept in a sorted dictionary so a query word also matches every indexed term
+ * it is a prefix of ("photo" finds "photography"). Each posting list maps catalog
+ * positions to vendor ids, so results come back in catalog order.
+ * The index is immutable: put and remove return a new index that copies only the paths
+ * to the postings of the vendor's terms and shares everything else with this one.
+ */
+public final class VendorSearchIndex {
+    private final PersistentTreeMap<String, PersistentTreeMap<Long, String>> postings;
+    private final PersistentTreeMap<String, Entry> entriesById;
+    
+    /**
+     * Where a vendor is indexed: its terms and its catalog position
+     */
+    private static final class Entry {
+        final Set<String> terms;
+        final long position;
+        
+        Entry(Set<String> terms, long position) {
+            this.terms = terms;
+            this.position = position;
+        }
+    }
+    
+    public VendorSearchIndex() {
+        this(PersistentTreeMap.empty(), PersistentTreeMap.empty());
+    }
+    
+    private VendorSearchIndex(PersistentTreeMap<String, PersistentTreeMap<Long, String>> postings,
+                              PersistentTreeMap<String, Entry> entriesById) {
+        this.postings = postings;
+        this.entriesById = entriesById;
+    }
+    
+    /**
+     * An index of vendors with distinct ids by catalog position, built in one pass
+     */
+    public VendorSearchIndex withAll(SortedMap<Long, Vendor> byPosition) {
+        Map<String, TreeMap<Long, String>> grouped = new HashMap<>();
+        TreeMap<String, Entry> entries = new TreeMap<>();
+        for (Map.Entry<Long, Vendor> positioned : byPosition.entrySet()) {
+            Vendor vendor = positioned.getValue();
+            Set<String> terms = terms(vendor);
+            for (String term : terms) {
+                grouped.computeIfAbsent(term, t -> new TreeMap<>()).put(positioned.getKey(), vendor.getId());
+            }
+            entries.put(vendor.getId(), new Entry(terms, positioned.getKey()));
+        }
+        
+        TreeMap<String, PersistentTreeMap<Long, String>> frozen = new TreeMap<>();
+        for (Map.Entry<String, TreeMap<Long, String>> posting : grouped.entrySet()) {
+            frozen.put(posting.getKey(), PersistentTreeMap.of(posting.getValue()));
+        }
+        return new VendorSearchIndex(PersistentTreeMap.of(frozen), PersistentTreeMap.of(entries));
+    }
+    
+    /**
+     * The index with a vendor at a catalog position, replacing any terms previously
+     * indexed under its id
+     */
+    public VendorSearchIndex put(Vendor vendor, long position) {
+        VendorSearchIndex base = remove(vendor.getId());
+        Set<String> terms = terms(vendor);
+        PersistentTreeMap<String, PersistentTreeMap<Long, String>> updated = base.postings;
+        for (String term : terms) {
+            PersistentTreeMap<Long, String> posting = updated.get(term);
+            if (posting == null) {
+                posting = PersistentTreeMap.empty();
+            }
+            updated = updated.put(term, posting.put(position, vendor.getId()));
+        }
+        return new VendorSearchIndex(updated, base.entriesById.put(vendor.getId(), new Entry(terms, position)));
+    }
+    
+    /**
+     * The index without a vendor and its postings
+     */
+    public VendorSearchIndex remove(String id) {
+        Entry entry = entriesById.get(id);
+        if (entry == null) {
+            return this;
+        }
+        
+        PersistentTreeMap<String, PersistentTreeMap<Long, String>> updated = postings;
+        for (String term : entry.terms) {
+            PersistentTreeMap<Long, String> posting = updated.get(term);
+            if (posting != null) {
+                posting = posting.remove(entry.position);
+                updated = posting.isEmpty() ? updated.remove(term) : updated.put(term, posting);
+            }
+        }
+        return new VendorSearchIndex(updated, entriesById.remove(id));
+    }
+    
+    /**
+     * Find the ids of vendors matching a query, in catalog order. Every word must match
+     * unless the words are separated by the word OR (in capitals), in which case any may.
+     * Returns null when the query is null or has no searchable terms.
+     */
+    public List<String> search(String query) {
+        if (query == null) {
+            return null;
+        }
+        
+        List<String> words = words(query);
+        boolean matchAll = !words.contains("OR");
+        List<String> queryTerms = new ArrayList<>(words.size());
+        for (String word : words) {
+            if (matchAll || !word.equals("OR")) {
+                queryTerms.addAll(tokenize(word));
+            }
+        }
+        return search(queryTerms, matchAll);
+    }
+    
+    /**
+     * Find the ids of vendors matching a query, in catalog order.
+     * With matchAll every query term must match (AND), otherwise any term may (OR).
+     * Returns null when the query has no searchable terms.
+     */
+    public List<String> search(String query, boolean matchAll) {
+        return search(tokenize(query), matchAll);
+    }
+    
+    private List<String> search(List<String> queryTerms, boolean matchAll) {
+        if (queryTerms.isEmpty()) {
+            return null;
+        }
+        
+        // Resolve each query term to the ids of every indexed term it prefixes
+        List<Map<Long, String>> matches = new ArrayList<>(queryTerms.size());
+        for (String term : new LinkedHashSet<>(queryTerms)) {
+            Map<Long, String> ids = new HashMap<>();
+            postings.forEachInRange(term, term + Character.MAX_VALUE, (indexed, posting) -> posting.forEach(ids::put));
+            if (matchAll && ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            matches.add(ids);
+        }
+        
+        Map<Long, String> result;
+        if (matchAll) {
+            // Intersect starting from the smallest posting set
+            matches.sort(Comparator.comparingInt(Map::size));
+            result = matches.get(0);
+            for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+                result.keySet().retainAll(matches.get(i).keySet());
+            }
+        } else {
+            result = new HashMap<>();
+            for (Map<Long, String> ids : matches) {
+                result.putAll(ids);
+            }
+        }
+        
+        return new ArrayList<>(new TreeMap<>(result).values());
+    }
+    
+    /**
+     * The searchable terms of a vendor
+     */
+    private static Set<String> terms(Vendor vendor) {
+        Set<String> terms = new HashSet<>();
+        terms.addAll(tokenize(vendor.getNormalizedName()));
+        terms.addAll(tokenize(vendor.getNormalizedDescription()));
+        terms.addAll(tokenize(vendor.getCategory()));
+        if (vendor.getServices() != null) {
+            for (Service service : vendor.getServices()) {
+                terms.addAll(tokenize(service.getName()));
+            }
+        }
+        return terms;
+    }
+    
+    /**
+     * Split text into normalized (lowercase, accent-folded) alphanumeric terms
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        
+        // Already-normalized text, such as a vendor's cached name, is used as it is
+        return words(VendorText.normalize(text));
+    }
+    
+    /**
+     * Split text into its runs of letters and digits, as they are
+     */
+    private static List<String> words(String text) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
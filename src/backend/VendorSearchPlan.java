@@ -0,0 +1,338 @@
+package com.weddingvendor.backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled filters of a vendor search. The request parameters are parsed once into a plan
+ * that tests every predicate for a vendor in a single pass over the catalog, with no
+ * intermediate lists. Predicates run cheapest first: rating and price read the primitive
+ * columns, category is a short equality test, and the location and text substring matches
+ * only run for vendors that passed the rest, against the vendors' cached normalized text.
+ * Parameters are normalized (trimmed and lowercased, so every filter is case-insensitive;
+ * query and location also accent-folded) and plans are immutable and cached by their
+ * canonical key, so repeated searches skip parsing.
+ */
+public final class VendorSearchPlan {
+    private static final int MAX_CACHED_PLANS = 256;
+    private static final Map<String, VendorSearchPlan> plans = new ConcurrentHashMap<>();
+    
+    private final double minRating;
+    private final double minPrice;
+    private final double maxPrice;
+    private final boolean hasRating;
+    private final boolean hasPrice;
+    private final String category;
+    private final String location;
+    private final String query;
+    private final String key;
+    
+    private VendorSearchPlan(String key, String query, String category, String location, String priceRange, String minRatingStr) {
+        // Unparsable price ranges and ratings are ignored, as before
+        double low = 0;
+        double high = 0;
+        boolean price = false;
+        if (isSet(priceRange)) {
+            String[] range = priceRange.split("-");
+            if (range.length == 2) {
+                try {
+                    low = Integer.parseInt(range[0]);
+                    high = Integer.parseInt(range[1]);
+                    price = true;
+                } catch (NumberFormatException e) {
+                    // Ignore invalid price range parameter
+                }
+            }
+        }
+        this.minPrice = low;
+        this.maxPrice = high;
+        this.hasPrice = price;
+        
+        double rating = 0;
+        boolean hasRating = false;
+        if (isSet(minRatingStr)) {
+            try {
+                rating = Double.parseDouble(minRatingStr);
+                hasRating = true;
+            } catch (NumberFormatException e) {
+                // Ignore invalid rating parameter
+            }
+        }
+        this.minRating = rating;
+        this.hasRating = hasRating;
+        
+        this.category = isSet(category) && !category.equals("all") ? category : null;
+        this.location = isSet(location) && !location.equals("all") ? location : null;
+        this.query = query;
+        this.key = key;
+    }
+    
+    /**
+     * The plan for a set of search parameters, compiled on first use
+     */
+    public static VendorSearchPlan compile(String query, String category, String location, String priceRange, String minRating) {
+        query = normalize(VendorText.normalize(query));
+        category = normalize(category);
+        location = normalize(VendorText.normalize(location));
+        priceRange = normalize(priceRange);
+        minRating = normalize(minRating);
+        
+        // Parameters in alphabetical order, so equivalent searches share one key
+        String key = "category=" + orEmpty(category) + "&location=" + orEmpty(location)
+            + "&minRating=" + orEmpty(minRating) + "&priceRange=" + orEmpty(priceRange)
+            + "&query=" + orEmpty(query);
+        VendorSearchPlan plan = plans.get(key);
+        if (plan == null) {
+            plan = new VendorSearchPlan(key, query, category, location, priceRange, minRating);
+            if (plans.size() >= MAX_CACHED_PLANS) {
+                plans.clear();
+            }
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+    
+    /**
+     * Canonical key of a page of this search, for caching its result
+     */
+    public String cacheKey(String sortBy, int offset, int limit, boolean facets) {
+        return key + "&facets=" + facets + "&limit=" + limit + "&offset=" + offset + "&sortBy=" + orEmpty(normalize(sortBy));
+    }
+    
+    /**
+     * One page of the matching vendors of a catalog version, plus the number of matches
+     * and, when asked for, the facet counts
+     */
+    public static final class Result {
+        private final List<Vendor> vendors;
+        private final int total;
+        private final Map<String, Map<String, Integer>> facets;
+        
+        Result(List<Vendor> vendors, int total, Map<String, Map<String, Integer>> facets) {
+            // Results are shared through the search cache, so they must not be modified
+            this.vendors = Collections.unmodifiableList(vendors);
+            this.total = total;
+            this.facets = facets != null ? Collections.unmodifiableMap(facets) : null;
+        }
+        
+        public List<Vendor> getVendors() {
+            return vendors;
+        }
+        
+        public int getTotal() {
+            return total;
+        }
+        
+        /**
+         * Counts per category, price bucket and rating bucket; null when not requested
+         */
+        public Map<String, Map<String, Integer>> getFacets() {
+            return facets;
+        }
+    }
+    
+    /**
+     * The matches from offset to offset + limit in sortBy order (catalog order for an unknown
+     * or missing sortBy). Sorted pages keep only offset + limit candidates in a bounded heap
+     * during the filter pass, and unsorted pages only the window itself.
+     */
+    public Result execute(VendorCatalog catalog, String sortBy, int offset, int limit) {
+        return execute(catalog, sortBy, offset, limit, false);
+    }
+    
+    /**
+     * As execute(catalog, sortBy, offset, limit), optionally with facet counts taken in the
+     * same pass. Each facet is counted over the vendors that pass every filter except its
+     * own, so a chosen category still shows the counts of the other categories.
+     */
+    public Result execute(VendorCatalog catalog, String sortBy, int offset, int limit, boolean facets) {
+        VendorColumns columns = catalog.getColumns();
+        int end = (int) Math.min((long) offset + limit, columns.size());
+        VendorTopK.OrdinalOrder order = order(columns, sortBy);
+        if (facets) {
+            return executeWithFacets(catalog, order, offset, end);
+        }
+        List<Vendor> page = new ArrayList<>(Math.max(0, Math.min(end - offset, 1024)));
+        int total = 0;
+        
+        if (order == null) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (matches(columns, i)) {
+                    if (total >= offset && total < end) {
+                        page.add(columns.vendor(i));
+                    }
+                    total++;
+                }
+            }
+            return new Result(page, total, null);
+        }
+        
+        VendorTopK top = new VendorTopK(order, end);
+        for (int i = 0; i < columns.size(); i++) {
+            if (matches(columns, i)) {
+                top.offer(i);
+                total++;
+            }
+        }
+        return new Result(page(columns, top, offset), total, null);
+    }
+    
+    /**
+     * The filter pass with facet counting: every filter is evaluated separately, and a
+     * vendor failing exactly one faceted filter still counts towards that facet
+     */
+    private Result executeWithFacets(VendorCatalog catalog, VendorTopK.OrdinalOrder order, int offset, int end) {
+        VendorColumns columns = catalog.getColumns();
+        VendorFacets facets = catalog.getFacets();
+        long[] categoryBase = facets.newWords();
+        long[] priceBase = facets.newWords();
+        long[] ratingBase = facets.newWords();
+        VendorTopK top = order != null ? new VendorTopK(order, end) : null;
+        List<Vendor> window = new ArrayList<>();
+        int total = 0;
+        
+        for (int i = 0; i < columns.size(); i++) {
+            boolean ratingOk = matchesRating(columns, i);
+            boolean priceOk = matchesPrice(columns, i);
+            Vendor vendor = columns.vendor(i);
+            boolean categoryOk = matchesCategory(vendor);
+            int failed = (ratingOk ? 0 : 1) + (priceOk ? 0 : 1) + (categoryOk ? 0 : 1);
+            // Vendors failing two faceted filters count nowhere, so skip the text matches
+            if (failed > 1 || !matchesText(vendor)) {
+                continue;
+            }
+            
+            long bit = 1L << i;
+            int word = i >>> 6;
+            if (ratingOk && priceOk) {
+                categoryBase[word] |= bit;
+            }
+            if (ratingOk && categoryOk) {
+                priceBase[word] |= bit;
+            }
+            if (priceOk && categoryOk) {
+                ratingBase[word] |= bit;
+            }
+            if (failed == 0) {
+                if (top != null) {
+                    top.offer(i);
+                } else if (total >= offset && total < end) {
+                    window.add(vendor);
+                }
+                total++;
+            }
+        }
+        List<Vendor> page = top != null ? page(columns, top, offset) : window;
+        return new Result(page, total, facets.count(categoryBase, priceBase, ratingBase));
+    }
+    
+    /**
+     * The vendors of the selected ordinals from offset on
+     */
+    private static List<Vendor> page(VendorColumns columns, VendorTopK top, int offset) {
+        int[] ordinals = top.drain();
+        List<Vendor> page = new ArrayList<>(Math.max(0, ordinals.length - offset));
+        for (int i = offset; i < ordinals.length; i++) {
+            page.add(columns.vendor(ordinals[i]));
+        }
+        return page;
+    }
+    
+    /**
+     * Sort order over catalog ordinals, ties in catalog order; null for no sorting
+     */
+    private static VendorTopK.OrdinalOrder order(VendorColumns columns, String sortBy) {
+        sortBy = normalize(sortBy);
+        if (sortBy == null) {
+            return null;
+        }
+        switch (sortBy) {
+            case "priceasc":
+                return (a, b) -> {
+                    int result = Double.compare(columns.minPrice(a), columns.minPrice(b));
+                    return result != 0 ? result : Integer.compare(a, b);
+                };
+            case "pricedesc":
+                return (a, b) -> {
+                    int result = Double.compare(columns.minPrice(b), columns.minPrice(a));
+                    return result != 0 ? result : Integer.compare(a, b);
+                };
+            case "rating":
+                return (a, b) -> {
+                    int result = Double.compare(columns.rating(b), columns.rating(a));
+                    return result != 0 ? result : Integer.compare(a, b);
+                };
+            case "reviewcount":
+                return (a, b) -> {
+                    int result = Integer.compare(columns.reviewCount(b), columns.reviewCount(a));
+                    return result != 0 ? result : Integer.compare(a, b);
+                };
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Whether the vendor at an ordinal passes all filters
+     */
+    public boolean matches(VendorColumns columns, int ordinal) {
+        if (!matchesRating(columns, ordinal) || !matchesPrice(columns, ordinal)) {
+            return false;
+        }
+        Vendor vendor = columns.vendor(ordinal);
+        return matchesCategory(vendor) && matchesText(vendor);
+    }
+    
+    private boolean matchesRating(VendorColumns columns, int ordinal) {
+        return !hasRating || columns.rating(ordinal) >= minRating;
+    }
+    
+    private boolean matchesPrice(VendorColumns columns, int ordinal) {
+        if (!hasPrice) {
+            return true;
+        }
+        double min = columns.minPrice(ordinal);
+        double max = columns.maxPrice(ordinal);
+        return (min >= minPrice && min <= maxPrice) || (max >= minPrice && max <= maxPrice);
+    }
+    
+    private boolean matchesCategory(Vendor vendor) {
+        return category == null || category.equalsIgnoreCase(vendor.getCategory());
+    }
+    
+    /**
+     * Location and query substring matches, the most expensive filters
+     */
+    private boolean matchesText(Vendor vendor) {
+        if (location != null && !contains(vendor.getNormalizedLocation(), location)) {
+            return false;
+        }
+        return query == null || contains(vendor.getNormalizedName(), query) || contains(vendor.getNormalizedDescription(), query);
+    }
+    
+    private static boolean contains(String normalized, String term) {
+        return normalized != null && normalized.contains(term);
+    }
+    
+    private static boolean isSet(String parameter) {
+        return parameter != null && !parameter.isEmpty();
+    }
+    
+    /**
+     * Trimmed and lowercased; null when absent or blank
+     */
+    private static String normalize(String parameter) {
+        if (parameter == null) {
+            return null;
+        }
+        String trimmed = parameter.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase();
+    }
+    
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
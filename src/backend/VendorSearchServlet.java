@@ -3,25 +3,24 @@ package com.weddingvendor.backend;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
- * Servlet for advanced vendor search and filtering
+ * Servlet for advanced vendor search and filtering. Pages are cached per catalog version;
+ * /api/vendors/search/stats reports the cache hit ratio.
  */
-@WebServlet("/api/vendors/search")
+@WebServlet({"/api/vendors/search", "/api/vendors/search/stats"})
 public class VendorSearchServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
+    private static final VendorSearchCache<VendorSearchPlan.Result> cache =
+        new VendorSearchCache<>(1024, 100_000, result -> result.getVendors().size());
     private final VendorSystem vendorSystem = new VendorSystem();
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson gson = new Gson();
     
     /**
      * @see HttpServlet#doGet(HttpServletRequest request, HttpServletResponse response)
@@ -31,6 +30,13 @@ public class VendorSearchServlet extends HttpServlet {
         response.setCharacterEncoding("UTF-8");
         
         PrintWriter out = response.getWriter();
+        boolean pretty = JsonResponseWriter.isPretty(request);
+        
+        if ("/api/vendors/search/stats".equals(request.getServletPath())) {
+            JsonResponseWriter.writeValue(out, gson, cache.getStats(), pretty);
+            out.flush();
+            return;
+        }
         
         try {
             // Extract search parameters
@@ -40,134 +46,55 @@ public class VendorSearchServlet extends HttpServlet {
             String priceRange = request.getParameter("priceRange");
             String sortBy = request.getParameter("sortBy");
             String minRatingStr = request.getParameter("minRating");
+            int offset = intParam(request, "offset", 0);
+            int limit = intParam(request, "limit", Integer.MAX_VALUE);
+            boolean facets = "true".equalsIgnoreCase(request.getParameter("facets"));
+            if (offset < 0 || limit < 1) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                JsonResponseWriter.writeValue(out, gson, new ErrorResponse("offset must be at least 0 and limit at least 1"), pretty);
+                out.flush();
+                return;
+            }
             
-            System.out.println("Search parameters - query: " + query + 
-                              ", category: " + category + 
-                              ", location: " + location + 
-                              ", priceRange: " + priceRange + 
-                              ", sortBy: " + sortBy +
-                              ", minRating: " + minRatingStr);
-            
-            // Get all vendors as base list
-            List<Vendor> results = vendorSystem.getAllVendors();
-            
-            // Apply filters
-            results = applyFilters(results, query, category, location, priceRange, minRatingStr);
-            
-            // Apply sorting
-            results = applySorting(results, sortBy);
-            
-            System.out.println("Found " + results.size() + " vendors after filtering");
+            // Filter against one consistent catalog version; sorted pages are selected with
+            // a bounded heap in the same pass instead of sorting every match. Pages are
+            // cached until the catalog version changes.
+            VendorCatalog catalog = vendorSystem.getCatalog();
+            VendorSearchPlan plan = VendorSearchPlan.compile(query, category, location, priceRange, minRatingStr);
+            String key = plan.cacheKey(sortBy, offset, limit, facets);
+            VendorSearchPlan.Result results = cache.get(key, catalog.getVersion());
+            if (results == null) {
+                results = plan.execute(catalog, sortBy, offset, limit, facets);
+                cache.put(key, catalog.getVersion(), results);
+            }
             
-            // Return results
-            out.print(gson.toJson(results));
+            // Return the page; the total number of matches goes in a header. With facets=true
+            // the page, total and facet counts come back together in one object.
+            response.setHeader("X-Total-Count", String.valueOf(results.getTotal()));
+            if (facets) {
+                JsonResponseWriter.writeValue(out, gson, results, pretty);
+            } else {
+                JsonResponseWriter.writeArray(out, gson, results.getVendors(), pretty);
+            }
             
+        } catch (NumberFormatException e) {
+            JsonResponseWriter.writeError(response, gson, HttpServletResponse.SC_BAD_REQUEST,
+                new ErrorResponse("Invalid offset or limit: " + e.getMessage()), pretty, e);
         } catch (Exception e) {
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            out.print(gson.toJson(new ErrorResponse("Error searching vendors: " + e.getMessage())));
             e.printStackTrace();
+            JsonResponseWriter.writeError(response, gson, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                new ErrorResponse("Error searching vendors: " + e.getMessage()), pretty, e);
         }
         
         out.flush();
     }
     
     /**
-     * Apply all filters to the vendor list
+     * Parse an optional integer query parameter
      */
-    private List<Vendor> applyFilters(List<Vendor> vendors, String query, String category, 
-                                     String location, String priceRange, String minRatingStr) {
-        List<Vendor> filtered = new ArrayList<>(vendors);
-        
-        // Filter by search query (name or description)
-        if (query != null && !query.isEmpty()) {
-            String lowercaseQuery = query.toLowerCase();
-            filtered = filtered.stream()
-                .filter(v -> v.getName().toLowerCase().contains(lowercaseQuery) || 
-                         (v.getDescription() != null && v.getDescription().toLowerCase().contains(lowercaseQuery)))
-                .collect(Collectors.toList());
-        }
-        
-        // Filter by category
-        if (category != null && !category.isEmpty() && !category.equalsIgnoreCase("all")) {
-            filtered = filtered.stream()
-                .filter(v -> v.getCategory().equalsIgnoreCase(category))
-                .collect(Collectors.toList());
-        }
-        
-        // Filter by location
-        if (location != null && !location.isEmpty() && !location.equalsIgnoreCase("all")) {
-            filtered = filtered.stream()
-                .filter(v -> v.getLocation() != null && v.getLocation().contains(location))
-                .collect(Collectors.toList());
-        }
-        
-        // Filter by price range
-        if (priceRange != null && !priceRange.isEmpty()) {
-            filtered = filterByPriceRange(filtered, priceRange);
-        }
-        
-        // Filter by minimum rating
-        if (minRatingStr != null && !minRatingStr.isEmpty()) {
-            try {
-                double minRating = Double.parseDouble(minRatingStr);
-                filtered = filtered.stream()
-                    .filter(v -> v.getRating() >= minRating)
-                    .collect(Collectors.toList());
-            } catch (NumberFormatException e) {
-                // Ignore invalid rating parameter
-            }
-        }
-        
-        return filtered;
-    }
-    
-    /**
-     * Filter vendors by price range
-     */
-    private List<Vendor> filterByPriceRange(List<Vendor> vendors, String priceRange) {
-        // Parse price range format: min-max (e.g., "100-500")
-        try {
-            String[] range = priceRange.split("-");
-            if (range.length == 2) {
-                int minPrice = Integer.parseInt(range[0]);
-                int maxPrice = Integer.parseInt(range[1]);
-                
-                return vendors.stream()
-                    .filter(v -> (v.getMinPrice() >= minPrice && v.getMinPrice() <= maxPrice) ||
-                             (v.getMaxPrice() >= minPrice && v.getMaxPrice() <= maxPrice))
-                    .collect(Collectors.toList());
-            }
-        } catch (Exception e) {
-            // Ignore invalid price range parameter
-        }
-        
-        return vendors;
-    }
-    
-    /**
-     * Apply sorting to the vendor list
-     */
-    private List<Vendor> applySorting(List<Vendor> vendors, String sortBy) {
-        if (sortBy != null) {
-            switch (sortBy) {
-                case "priceAsc":
-                    vendors.sort((a, b) -> Double.compare(a.getMinPrice(), b.getMinPrice()));
-                    break;
-                case "priceDesc":
-                    vendors.sort((a, b) -> Double.compare(b.getMinPrice(), a.getMinPrice()));
-                    break;
-                case "rating":
-                    vendors.sort((a, b) -> Double.compare(b.getRating(), a.getRating()));
-                    break;
-                case "reviewCount":
-                    vendors.sort((a, b) -> Integer.compare(b.getReviewCount(), a.getReviewCount()));
-                    break;
-                default:
-                    // Default, no sorting changes
-            }
-        }
-        
-        return vendors;
+    private static int intParam(HttpServletRequest request, String name, int defaultValue) {
+        String value = request.getParameter(name);
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
     }
     
     /**
@@ -2,6 +2,7 @@ package com.weddingvendor.backend;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.util.List;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -9,7 +10,6 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 /**
  * Servlet to handle vendor-related operations
@@ -18,7 +18,7 @@ import com.google.gson.GsonBuilder;
 public class VendorServlet extends HttpServlet {
     private static final long serialVersionUID = 1L;
     private final VendorSystem vendorSystem = new VendorSystem();
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson gson = new Gson();
     
     /**
      * Handle GET requests
@@ -35,6 +35,7 @@ public class VendorServlet extends HttpServlet {
         
         String pathInfo = request.getPathInfo();
         PrintWriter out = response.getWriter();
+        boolean pretty = JsonResponseWriter.isPretty(request);
         
         try {
             System.out.println("Processing vendor request with pathInfo: " + pathInfo);
@@ -82,11 +83,8 @@ public class VendorServlet extends HttpServlet {
                     System.out.println("Getting all vendors (no filters), found: " + vendorList.size());
                 }
                 
-                String jsonResponse = gson.toJson(vendorList);
-                System.out.println("Returning JSON response with " + vendorList.size() + " vendors");
-                System.out.println("Sample of response: " + (jsonResponse.length() > 100 ? 
-                                                           jsonResponse.substring(0, 100) + "..." : jsonResponse));
-                out.print(jsonResponse);
+                System.out.println("Streaming JSON response with " + vendorList.size() + " vendors");
+                JsonResponseWriter.writeArray(out, gson, vendorList, pretty);
             } else {
                 // Get vendor by ID
                 String vendorId = pathInfo.substring(1);
@@ -96,18 +94,18 @@ public class VendorServlet extends HttpServlet {
                 
                 if (vendor != null) {
                     System.out.println("Found vendor by ID: " + vendorId + " - " + vendor.getName());
-                    out.print(gson.toJson(vendor));
+                    JsonResponseWriter.writeValue(out, gson, vendor, pretty);
                 } else {
                     System.out.println("Vendor not found with ID: " + vendorId);
                     response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-                    out.print(gson.toJson(new ErrorResponse("Vendor not found")));
+                    JsonResponseWriter.writeValue(out, gson, new ErrorResponse("Vendor not found"), pretty);
                 }
             }
         } catch (Exception e) {
             System.err.println("Error in vendor servlet: " + e.getMessage());
             e.printStackTrace();
-            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-            out.print(gson.toJson(new ErrorResponse("Internal server error: " + e.getMessage())));
+            JsonResponseWriter.writeError(response, gson, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
+                new ErrorResponse("Internal server error: " + e.getMessage()), pretty, e);
         }
         
         // Ensure the response is flushed
@@ -138,6 +136,10 @@ public class VendorServlet extends HttpServlet {
             PrintWriter out = response.getWriter();
             out.print(gson.toJson(new SuccessResponse(vendorId)));
             
+        } catch (UncheckedIOException e) {
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            PrintWriter out = response.getWriter();
+            out.print(gson.toJson(new ErrorResponse("Error saving vendor: " + e.getMessage())));
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             PrintWriter out = response.getWriter();
@@ -183,6 +185,9 @@ public class VendorServlet extends HttpServlet {
                 out.print(gson.toJson(new ErrorResponse("Vendor not found")));
             }
             
+        } catch (UncheckedIOException e) {
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            out.print(gson.toJson(new ErrorResponse("Error saving vendor: " + e.getMessage())));
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             out.print(gson.toJson(new ErrorResponse("Invalid vendor data: " + e.getMessage())));
@@ -209,13 +214,18 @@ public class VendorServlet extends HttpServlet {
         }
         
         String vendorId = pathInfo.substring(1);
-        boolean success = vendorSystem.deleteVendor(vendorId);
-        
-        if (success) {
-            out.print(gson.toJson(new SuccessResponse("Vendor deleted successfully")));
-        } else {
-            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
-            out.print(gson.toJson(new ErrorResponse("Vendor not found")));
+        try {
+            boolean success = vendorSystem.deleteVendor(vendorId);
+            
+            if (success) {
+                out.print(gson.toJson(new SuccessResponse("Vendor deleted successfully")));
+            } else {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                out.print(gson.toJson(new ErrorResponse("Vendor not found")));
+            }
+        } catch (Exception e) {
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            out.print(gson.toJson(new ErrorResponse("Error deleting vendor: " + e.getMessage())));
         }
     }
     
@@ -0,0 +1,309 @@
+package com.weddingvendor.backend;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Point-in-time copy of the whole vendor catalog, written next to the vendor log.
+ *
+ * Version 2 layout (big-endian, all offsets absolute):
+ * <pre>
+ * int magic "WVSN" | int version | int vendorCount | int stringCount
+ * int[stringCount] string offsets | int[vendorCount] vendor offsets
+ * strings:  int byteLength, UTF-8 bytes
+ * vendors:  int refs id, name, category, image, priceDisplay, location, description,
+ *           double rating, int reviewCount, double minPrice, double maxPrice,
+ *           int serviceCount, then per service int refs id, name, category,
+ *           description, duration and double price
+ * </pre>
+ * Every string is stored once in the string table and referenced by index (-1 for null),
+ * so repeated categories, locations and package names cost four bytes per use. The file is
+ * read through a memory-mapped buffer and records are decoded only when asked for.
+ */
+public final class VendorSnapshot {
+    private static final int MAGIC = 0x5756534E; // "WVSN"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16;
+    private static final int VENDOR_FIXED_SIZE = 7 * 4 + 8 + 4 + 8 + 8 + 4;
+    private static final int SERVICE_SIZE = 5 * 4 + 8;
+    
+    private VendorSnapshot() {
+    }
+    
+    /**
+     * Write the vendors to a temporary file and atomically move it into place
+     */
+    public static void write(File file, List<Vendor> vendors) throws IOException {
+        // Build the string table
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        for (Vendor vendor : vendors) {
+            for (String value : vendorStrings(vendor)) {
+                if (value != null && !stringIds.containsKey(value)) {
+                    stringIds.put(value, strings.size());
+                    strings.add(value.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        
+        // Lay out offsets so the header can be written before the data
+        long position = HEADER_SIZE + 4L * strings.size() + 4L * vendors.size();
+        int[] stringOffsets = new int[strings.size()];
+        for (int i = 0; i < strings.size(); i++) {
+            stringOffsets[i] = checkedOffset(position);
+            position += 4 + strings.get(i).length;
+        }
+        int[] vendorOffsets = new int[vendors.size()];
+        for (int i = 0; i < vendors.size(); i++) {
+            vendorOffsets[i] = checkedOffset(position);
+            position += VENDOR_FIXED_SIZE + (long) SERVICE_SIZE * serviceCount(vendors.get(i));
+        }
+        checkedOffset(position);
+        
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(vendors.size());
+            out.writeInt(strings.size());
+            for (int offset : stringOffsets) {
+                out.writeInt(offset);
+            }
+            for (int offset : vendorOffsets) {
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : strings) {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            for (Vendor vendor : vendors) {
+                writeVendor(out, vendor, stringIds);
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Read all vendors from a snapshot file
+     */
+    public static List<Vendor> read(File file) throws IOException {
+        List<Vendor> vendors = new ArrayList<>();
+        read(file, vendors::add);
+        return vendors;
+    }
+    
+    /**
+     * Hand every vendor of a snapshot file to a consumer in order, decoding one record at
+     * a time through the mapped reader instead of materializing the whole list first
+     */
+    public static void read(File file, Consumer<Vendor> consumer) throws IOException {
+        Reader reader = open(file);
+        for (int i = 0; i < reader.size(); i++) {
+            consumer.accept(reader.get(i));
+        }
+    }
+    
+    /**
+     * Map a snapshot for random-access, on-demand decoding
+     */
+    public static Reader open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Vendor snapshot too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Reader(buffer, file);
+        }
+    }
+    
+    /**
+     * Lazily decoding view over a mapped snapshot. Strings are decoded the first time a
+     * record references them and then shared by every later record. Every offset, length
+     * and reference is checked against the mapped size before it is read, so a truncated
+     * or corrupt file fails with an IllegalStateException instead of reading garbage.
+     */
+    public static final class Reader {
+        private final ByteBuffer buffer;
+        private final int vendorCount;
+        private final int stringCount;
+        private final String[] stringCache;
+        
+        private Reader(ByteBuffer buffer, File file) throws IOException {
+            this.buffer = buffer;
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a vendor snapshot: " + file);
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported vendor snapshot version " + version + ": " + file);
+            }
+            this.vendorCount = buffer.getInt(8);
+            this.stringCount = buffer.getInt(12);
+            if (vendorCount < 0 || stringCount < 0
+                    || HEADER_SIZE + 4L * stringCount + 4L * vendorCount > buffer.limit()) {
+                throw new IOException("Corrupt vendor snapshot header: " + file);
+            }
+            this.stringCache = new String[stringCount];
+        }
+        
+        /**
+         * Number of vendors in the snapshot
+         */
+        public int size() {
+            return vendorCount;
+        }
+        
+        /**
+         * Decode the vendor at a position
+         */
+        public Vendor get(int index) {
+            if (index < 0 || index >= vendorCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + vendorCount);
+            }
+            int p = buffer.getInt(HEADER_SIZE + 4 * stringCount + 4 * index);
+            checkRange(p, VENDOR_FIXED_SIZE, "vendor " + index);
+            
+            Vendor vendor = new Vendor();
+            vendor.setId(string(buffer.getInt(p)));
+            vendor.setName(string(buffer.getInt(p + 4)));
+            vendor.setCategory(string(buffer.getInt(p + 8)));
+            vendor.setImage(string(buffer.getInt(p + 12)));
+            String priceDisplay = string(buffer.getInt(p + 16));
+            vendor.setLocation(string(buffer.getInt(p + 20)));
+            vendor.setDescription(string(buffer.getInt(p + 24)));
+            p += 28;
+            vendor.setRating(buffer.getDouble(p));
+            vendor.setReviewCount(buffer.getInt(p + 8));
+            vendor.restorePrices(buffer.getDouble(p + 12), buffer.getDouble(p + 20), priceDisplay);
+            int serviceCount = buffer.getInt(p + 28);
+            p += 32;
+            if (serviceCount < 0) {
+                throw new IllegalStateException("Corrupt vendor snapshot: negative service count for vendor " + index);
+            }
+            checkRange(p, (long) SERVICE_SIZE * serviceCount, "services of vendor " + index);
+            
+            List<Service> services = new ArrayList<>(serviceCount);
+            for (int i = 0; i < serviceCount; i++, p += SERVICE_SIZE) {
+                services.add(new Service(string(buffer.getInt(p)), string(buffer.getInt(p + 4)),
+                    string(buffer.getInt(p + 8)), string(buffer.getInt(p + 12)),
+                    buffer.getDouble(p + 20), string(buffer.getInt(p + 16))));
+            }
+            vendor.setServices(services);
+            return vendor;
+        }
+        
+        private String string(int ref) {
+            if (ref < 0) {
+                return null;
+            }
+            if (ref >= stringCount) {
+                throw new IllegalStateException("Corrupt vendor snapshot: string " + ref + " of " + stringCount);
+            }
+            String value = stringCache[ref];
+            if (value == null) {
+                int p = buffer.getInt(HEADER_SIZE + 4 * ref);
+                checkRange(p, 4, "string " + ref);
+                int length = buffer.getInt(p);
+                checkRange(p + 4L, length, "string " + ref);
+                byte[] bytes = new byte[length];
+                ByteBuffer slice = buffer.duplicate();
+                slice.position(p + 4);
+                slice.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                stringCache[ref] = value;
+            }
+            return value;
+        }
+        
+        /**
+         * Fail unless length bytes from offset lie inside the mapped file
+         */
+        private void checkRange(long offset, long length, String what) {
+            if (offset < HEADER_SIZE || length < 0 || offset + length > buffer.limit()) {
+                throw new IllegalStateException("Corrupt vendor snapshot: " + what + " at offset " + offset
+                    + " with length " + length + " exceeds " + buffer.limit() + " bytes");
+            }
+        }
+    }
+    
+    private static void writeVendor(DataOutputStream out, Vendor vendor, Map<String, Integer> stringIds) throws IOException {
+        out.writeInt(ref(stringIds, vendor.getId()));
+        out.writeInt(ref(stringIds, vendor.getName()));
+        out.writeInt(ref(stringIds, vendor.getCategory()));
+        out.writeInt(ref(stringIds, vendor.getImage()));
+        out.writeInt(ref(stringIds, vendor.getPriceDisplay()));
+        out.writeInt(ref(stringIds, vendor.getLocation()));
+        out.writeInt(ref(stringIds, vendor.getDescription()));
+        out.writeDouble(vendor.getRating());
+        out.writeInt(vendor.getReviewCount());
+        out.writeDouble(vendor.getMinPrice());
+        out.writeDouble(vendor.getMaxPrice());
+        
+        int count = serviceCount(vendor);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            Service service = vendor.getServices().get(i);
+            out.writeInt(ref(stringIds, service.getId()));
+            out.writeInt(ref(stringIds, service.getName()));
+            out.writeInt(ref(stringIds, service.getCategory()));
+            out.writeInt(ref(stringIds, service.getDescription()));
+            out.writeInt(ref(stringIds, service.getDuration()));
+            out.writeDouble(service.getPrice());
+        }
+    }
+    
+    private static List<String> vendorStrings(Vendor vendor) {
+        List<String> values = new ArrayList<>();
+        values.add(vendor.getId());
+        values.add(vendor.getName());
+        values.add(vendor.getCategory());
+        values.add(vendor.getImage());
+        values.add(vendor.getPriceDisplay());
+        values.add(vendor.getLocation());
+        values.add(vendor.getDescription());
+        int count = serviceCount(vendor);
+        for (int i = 0; i < count; i++) {
+            Service service = vendor.getServices().get(i);
+            values.add(service.getId());
+            values.add(service.getName());
+            values.add(service.getCategory());
+            values.add(service.getDescription());
+            values.add(service.getDuration());
+        }
+        return values;
+    }
+    
+    private static int serviceCount(Vendor vendor) {
+        return vendor.getServices() != null ? vendor.getServices().size() : 0;
+    }
+    
+    private static int ref(Map<String, Integer> stringIds, String value) {
+        return value == null ? -1 : stringIds.get(value);
+    }
+    
+    private static int checkedOffset(long position) throws IOException {
+        if (position > Integer.MAX_VALUE) {
+            throw new IOException("Vendor snapshot exceeds 2 GB");
+        }
+        return (int) position;
+    }
+}
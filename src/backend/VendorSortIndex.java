@@ -0,0 +1,94 @@
+package com.weddingvendor.backend;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Ordered secondary index over vendors keyed on a numeric attribute and tie-broken by id.
+ * The key is captured when a vendor is indexed, so the index has to be told about every
+ * add, update and delete rather than re-reading the vendor later.
+ * The index is immutable: put and remove return a new index that shares all unchanged
+ * tree nodes with this one.
+ */
+public final class VendorSortIndex {
+    private final ToDoubleFunction<Vendor> keyExtractor;
+    private final PersistentTreeMap<SortKey, Vendor> ordered;
+    private final PersistentTreeMap<String, SortKey> keysById;
+    
+    public VendorSortIndex(ToDoubleFunction<Vendor> keyExtractor) {
+        this(keyExtractor, PersistentTreeMap.empty(), PersistentTreeMap.empty());
+    }
+    
+    private VendorSortIndex(ToDoubleFunction<Vendor> keyExtractor, PersistentTreeMap<SortKey, Vendor> ordered,
+                            PersistentTreeMap<String, SortKey> keysById) {
+        this.keyExtractor = keyExtractor;
+        this.ordered = ordered;
+        this.keysById = keysById;
+    }
+    
+    /**
+     * An index of vendors with distinct ids, built in one pass instead of a put per vendor
+     */
+    public VendorSortIndex withAll(Collection<Vendor> vendors) {
+        TreeMap<SortKey, Vendor> sorted = new TreeMap<>();
+        TreeMap<String, SortKey> keys = new TreeMap<>();
+        for (Vendor vendor : vendors) {
+            SortKey key = new SortKey(keyExtractor.applyAsDouble(vendor), vendor.getId());
+            sorted.put(key, vendor);
+            keys.put(vendor.getId(), key);
+        }
+        return new VendorSortIndex(keyExtractor, PersistentTreeMap.of(sorted), PersistentTreeMap.of(keys));
+    }
+    
+    /**
+     * The index with a vendor added, replacing any entry already indexed under its id
+     */
+    public VendorSortIndex put(Vendor vendor) {
+        VendorSortIndex base = remove(vendor.getId());
+        SortKey key = new SortKey(keyExtractor.applyAsDouble(vendor), vendor.getId());
+        return new VendorSortIndex(keyExtractor, base.ordered.put(key, vendor), base.keysById.put(vendor.getId(), key));
+    }
+    
+    /**
+     * The index without the vendor indexed under the given id
+     */
+    public VendorSortIndex remove(String id) {
+        SortKey key = keysById.get(id);
+        if (key == null) {
+            return this;
+        }
+        return new VendorSortIndex(keyExtractor, ordered.remove(key), keysById.remove(id));
+    }
+    
+    public int size() {
+        return ordered.size();
+    }
+    
+    /**
+     * All vendors in ascending key order, as a read-only view
+     */
+    public List<Vendor> ascending() {
+        return ordered.values();
+    }
+    
+    /**
+     * Index key: the attribute value captured at insert time plus the vendor id
+     */
+    private static final class SortKey implements Comparable<SortKey> {
+        private final double value;
+        private final String id;
+        
+        SortKey(double value, String id) {
+            this.value = value;
+            this.id = id;
+        }
+        
+        @Override
+        public int compareTo(SortKey other) {
+            int cmp = Double.compare(value, other.value);
+            return cmp != 0 ? cmp : id.compareTo(other.id);
+        }
+    }
+}
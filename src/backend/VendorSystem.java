@@ -2,15 +2,33 @@ package com.weddingvendor.backend;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * System to manage vendors using the custom LinkedList implementation with file persistence
+ * System to manage vendors with file persistence.
+ * Every mutation is appended to data/vendors.log; a background task periodically folds the
+ * log into data/vendors.snapshot. Startup loads the snapshot and replays the log tail.
+ *
+ * The published VendorCatalog is the only in-memory copy of the vendors. Writes are
+ * serialized on VendorSystem.class and publish a new immutable catalog derived from the
+ * previous one; reads, and the snapshots written by compaction, go through the published
+ * catalog without locking, so they always see one consistent version.
  */
 public class VendorSystem {
-    private static VendorLinkedList vendors = new VendorLinkedList();
-    private static final String DATA_FILE = "data/vendors.dat";
+    private static volatile VendorCatalog catalog = VendorCatalog.EMPTY;
+    // Data directory can be overridden, e.g. by the benchmarks, with -Dweddingvendor.data.dir
+    private static final String DATA_DIR = System.getProperty("weddingvendor.data.dir", "data");
+    private static final String SNAPSHOT_FILE = DATA_DIR + "/vendors.snapshot";
+    private static final String LOG_FILE = DATA_DIR + "/vendors.log";
+    private static final int COMPACTION_THRESHOLD = 1000;
+    private static final long COMPACTION_INTERVAL_SECONDS = 60;
+    private static VendorLog log;
+    private static ScheduledExecutorService compactor;
     private static boolean isInitialized = false;
     
     // Initialize with sample data or load from file
@@ -20,13 +38,14 @@ public class VendorSystem {
             boolean loaded = loadFromFile();
             
             // If no data was loaded, initialize with sample data
-            if (!loaded || vendors.isEmpty()) {
+            if (!loaded || catalog.size() == 0) {
                 System.out.println("No vendor data found, initializing with sample data");
                 initializeSampleData();
             } else {
                 System.out.println("Successfully loaded vendor data from file");
             }
             
+            startCompactor();
             isInitialized = true;
         }
     }
@@ -132,29 +151,24 @@ public class VendorSystem {
             "Full-service wedding planning to make your journey to the altar stress-free and enjoyable."
         );
         
-        // Add all vendors to the LinkedList
-        vendors.add(vendor1);
-        vendors.add(vendor2);
-        vendors.add(vendor3);
-        vendors.add(vendor4);
-        vendors.add(vendor5);
-        vendors.add(vendor6);
+        // Publish all vendors as one catalog version
+        catalog = VendorCatalog.of(catalog.getVersion() + 1,
+            Arrays.asList(vendor1, vendor2, vendor3, vendor4, vendor5, vendor6));
         
-        System.out.println("Added " + vendors.size() + " sample vendors");
+        System.out.println("Added " + catalog.size() + " sample vendors");
         
-        // Save the initial data to file
-        saveToFile();
+        // Save the initial data as a snapshot
+        compact();
     }
     
     /**
-     * Load vendors from file
+     * Load vendors from the latest snapshot and replay the mutation log on top of it
      */
-    @SuppressWarnings("unchecked")
     private static boolean loadFromFile() {
-        System.out.println("Attempting to load vendors from file: " + DATA_FILE);
+        System.out.println("Attempting to load vendors from snapshot: " + SNAPSHOT_FILE + " and log: " + LOG_FILE);
         
         // Create data directory if it doesn't exist
-        File dataDir = new File("data");
+        File dataDir = new File(DATA_DIR);
         if (!dataDir.exists()) {
             boolean created = dataDir.mkdir();
             if (created) {
@@ -165,206 +179,285 @@ public class VendorSystem {
             }
         }
         
-        File file = new File(DATA_FILE);
+        List<Vendor> loadedVendors = new ArrayList<>();
+        boolean loaded = false;
         
-        if (file.exists() && file.length() > 0) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                // Read the list of vendors from the file
-                List<Vendor> vendorList = (List<Vendor>) ois.readObject();
-                
-                // Clear the current list
-                vendors = new VendorLinkedList();
-                
-                // Add all vendors to the LinkedList
-                for (Vendor vendor : vendorList) {
-                    vendors.add(vendor);
+        File snapshot = new File(SNAPSHOT_FILE);
+        try {
+            if (snapshot.exists()) {
+                VendorSnapshot.read(snapshot, loadedVendors::add);
+                System.out.println("Loaded " + loadedVendors.size() + " vendors from snapshot: " + snapshot.getAbsolutePath());
+                loaded = true;
+            }
+        } catch (IOException | RuntimeException e) {
+            // A truncated or corrupt snapshot fails as a buffer underflow or a bad length
+            System.err.println("Error loading vendor snapshot: " + e.getMessage());
+            e.printStackTrace();
+            loadedVendors.clear();
+        }
+        catalog = VendorCatalog.of(catalog.getVersion() + 1, loadedVendors);
+        
+        try {
+            // Replay derives catalog versions the same way live writes do
+            log = new VendorLog(new File(LOG_FILE));
+            int replayed = log.open(new VendorLog.Replay() {
+                @Override
+                public void put(Vendor vendor) {
+                    catalog = catalog.put(vendor);
                 }
                 
-                System.out.println("Loaded " + vendorList.size() + " vendors from file: " + file.getAbsolutePath());
-                return true;
-            } catch (IOException | ClassNotFoundException e) {
-                System.err.println("Error loading vendors from file: " + e.getMessage());
-                e.printStackTrace();
-                // If there's an error, initialize with sample data
-                vendors = new VendorLinkedList();
-                return false;
+                @Override
+                public void delete(String id) {
+                    catalog = catalog.remove(id);
+                }
+            });
+            System.out.println("Replayed " + replayed + " records from vendor log");
+            loaded = loaded || replayed > 0;
+        } catch (IOException e) {
+            System.err.println("Error replaying vendor log: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        if (loaded && !snapshot.exists()) {
+            // Fold a log without a snapshot into one
+            compact();
+        }
+        return loaded;
+    }
+    
+    /**
+     * Append a vendor add or update to the mutation log. Writers log before changing the
+     * catalog, so a failure here fails the write instead of losing it on restart.
+     */
+    private static void logPut(Vendor vendor) {
+        try {
+            if (log != null) {
+                log.appendPut(vendor);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing vendor to log: " + e.getMessage());
+            throw new UncheckedIOException("Could not log vendor " + vendor.getId(), e);
+        }
+    }
+    
+    /**
+     * Append a vendor deletion to the mutation log; fails the write like logPut
+     */
+    private static void logDelete(String id) {
+        try {
+            if (log != null) {
+                log.appendDelete(id);
             }
-        } else {
-            System.out.println("Vendors data file does not exist or is empty, will create with sample data");
-            return false;
+        } catch (IOException e) {
+            System.err.println("Error writing vendor deletion to log: " + e.getMessage());
+            throw new UncheckedIOException("Could not log deletion of vendor " + id, e);
         }
     }
     
     /**
-     * Save vendors to file
+     * Write a fresh snapshot and drop the log records it covers. The catalog version is
+     * taken together with the log mark under the write lock; being immutable, it is then
+     * written without blocking writers. Records appended meanwhile stay in the log and are
+     * harmless to replay again.
      */
-    private static void saveToFile() {
+    private static void compact() {
+        VendorCatalog current;
         try {
-            // Ensure the data directory exists
-            File dataDir = new File("data");
-            if (!dataDir.exists()) {
-                boolean created = dataDir.mkdir();
-                if (!created) {
-                    System.err.println("Failed to create data directory");
-                    return;
+            synchronized (VendorSystem.class) {
+                current = catalog;
+                if (log != null) {
+                    log.mark();
                 }
             }
             
-            File file = new File(DATA_FILE);
+            List<Vendor> copy = new ArrayList<>(current.getVendors());
+            VendorSnapshot.write(new File(SNAPSHOT_FILE), copy);
             
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-                // Convert LinkedList to regular list for serialization
-                List<Vendor> vendorList = vendors.toList();
-                oos.writeObject(vendorList);
-                System.out.println("Saved " + vendorList.size() + " vendors to file: " + file.getAbsolutePath());
+            synchronized (VendorSystem.class) {
+                if (log != null) {
+                    log.discardBeforeMark();
+                }
             }
+            System.out.println("Saved snapshot of " + current.size() + " vendors to file: " + SNAPSHOT_FILE);
         } catch (IOException e) {
-            System.err.println("Error saving vendors to file: " + e.getMessage());
+            System.err.println("Error compacting vendor data: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
+    /**
+     * Start the background task that compacts the log once it grows past the threshold
+     */
+    private static void startCompactor() {
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vendor-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            if (log != null && log.getRecordCount() >= COMPACTION_THRESHOLD) {
+                compact();
+            }
+        }, COMPACTION_INTERVAL_SECONDS, COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+    
     /**
      * Get all vendors
      */
     public List<Vendor> getAllVendors() {
-        List<Vendor> result = vendors.toList();
-        System.out.println("getAllVendors: Retrieved " + result.size() + " vendors");
-        return result;
+        // Callers filter and sort the result in place, so hand out a copy
+        return new ArrayList<>(catalog.getVendors());
+    }
+    
+    /**
+     * Get the current catalog version for lock-free, consistent reads
+     */
+    public VendorCatalog getCatalog() {
+        return catalog;
     }
     
     /**
      * Get vendor by ID
      */
     public Vendor getVendorById(String id) {
-        return vendors.getById(id);
+        return catalog.getById(id);
     }
     
     /**
-     * Add a new vendor
+     * Add a new vendor; a vendor already stored under the same id is replaced in place,
+     * which is also how the log replays the record
      */
     public String addVendor(Vendor vendor) {
-        if (vendor.getId() == null || vendor.getId().isEmpty()) {
-            vendor.setId("vendor" + UUID.randomUUID().toString().substring(0, 8));
+        synchronized (VendorSystem.class) {
+            if (vendor.getId() == null || vendor.getId().isEmpty()) {
+                vendor.setId("vendor" + UUID.randomUUID().toString().substring(0, 8));
+            }
+            logPut(vendor);
+            catalog = catalog.put(vendor);
+            return vendor.getId();
         }
-        vendors.add(vendor);
-        saveToFile();
-        return vendor.getId();
     }
     
     /**
      * Update a vendor
      */
     public boolean updateVendor(String id, Vendor vendor) {
-        boolean updated = vendors.updateById(id, vendor);
-        if (updated) {
-            saveToFile();
+        synchronized (VendorSystem.class) {
+            // Keep the id index keyed on the path id when the body omits it
+            if (vendor.getId() == null || vendor.getId().isEmpty()) {
+                vendor.setId(id);
+            }
+            if (catalog.getById(id) == null) {
+                return false;
+            }
+            logPut(vendor);
+            boolean renamed = !id.equals(vendor.getId());
+            if (renamed) {
+                logDelete(id);
+            }
+            
+            // Same position in catalog order, re-indexed under the (possibly new) id
+            catalog = catalog.replace(id, vendor);
+            return true;
         }
-        return updated;
     }
     
     /**
      * Delete a vendor
      */
     public boolean deleteVendor(String id) {
-        boolean removed = vendors.removeById(id);
-        if (removed) {
-            saveToFile();
+        synchronized (VendorSystem.class) {
+            if (catalog.getById(id) == null) {
+                return false;
+            }
+            logDelete(id);
+            catalog = catalog.remove(id);
+            return true;
         }
-        return removed;
     }
     
     /**
      * Get vendors sorted by price (ascending)
      */
     public List<Vendor> getVendorsSortedByPrice() {
-        // Create a copy of the vendor list
-        VendorLinkedList sortedList = new VendorLinkedList();
-        for (Vendor vendor : vendors.toList()) {
-            sortedList.add(vendor);
-        }
-        
-        // Sort the copy
-        sortedList.bubbleSortByPrice();
-        
-        return sortedList.toList();
+        return catalog.sortedByPrice(0, Integer.MAX_VALUE, false);
+    }
+    
+    /**
+     * Get a page of vendors sorted by price (ascending)
+     */
+    public List<Vendor> getVendorsSortedByPrice(int offset, int limit) {
+        return catalog.sortedByPrice(offset, limit, false);
     }
     
     /**
      * Get vendors sorted by price (descending)
      */
     public List<Vendor> getVendorsSortedByPriceDesc() {
-        // Create a copy of the vendor list
-        VendorLinkedList sortedList = new VendorLinkedList();
-        for (Vendor vendor : vendors.toList()) {
-            sortedList.add(vendor);
-        }
-        
-        // Sort the copy
-        sortedList.bubbleSortByPriceDesc();
-        
-        return sortedList.toList();
+        return catalog.sortedByPrice(0, Integer.MAX_VALUE, true);
+    }
+    
+    /**
+     * Get a page of vendors sorted by price (descending)
+     */
+    public List<Vendor> getVendorsSortedByPriceDesc(int offset, int limit) {
+        return catalog.sortedByPrice(offset, limit, true);
     }
     
     /**
      * Get vendors sorted by rating
      */
     public List<Vendor> getVendorsSortedByRating() {
-        // Create a copy of the vendor list
-        VendorLinkedList sortedList = new VendorLinkedList();
-        for (Vendor vendor : vendors.toList()) {
-            sortedList.add(vendor);
-        }
-        
-        // Sort the copy
-        sortedList.bubbleSortByRating();
-        
-        return sortedList.toList();
+        return catalog.sortedByRating(0, Integer.MAX_VALUE, true);
+    }
+    
+    /**
+     * Get a page of vendors sorted by rating (highest first)
+     */
+    public List<Vendor> getVendorsSortedByRating(int offset, int limit) {
+        return catalog.sortedByRating(offset, limit, true);
     }
     
     /**
-     * Get vendors by category
+     * Get vendors by category (case-insensitive)
      */
     public List<Vendor> getVendorsByCategory(String category) {
-        VendorLinkedList categoryList = new VendorLinkedList();
-        
-        for (Vendor vendor : vendors.toList()) {
-            if (vendor.getCategory().equalsIgnoreCase(category)) {
-                categoryList.add(vendor);
-            }
-        }
-        
-        return categoryList.toList();
+        return catalog.byCategory(category);
     }
     
     /**
-     * Get vendors by location
+     * Get vendors by location, matching either the full location or one of its
+     * comma-separated parts such as the city or state (case-insensitive)
      */
     public List<Vendor> getVendorsByLocation(String location) {
-        VendorLinkedList locationList = new VendorLinkedList();
-        
-        for (Vendor vendor : vendors.toList()) {
-            if (vendor.getLocation().contains(location)) {
-                locationList.add(vendor);
-            }
-        }
-        
-        return locationList.toList();
+        return catalog.byLocation(location);
     }
     
     /**
-     * Search vendors by name or description
+     * Search vendors by name, description, category or service names.
+     * Every word must match unless the words are separated by OR; a null or blank query
+     * matches every vendor.
      */
     public List<Vendor> searchVendors(String query) {
-        VendorLinkedList searchResults = new VendorLinkedList();
-        
-        for (Vendor vendor : vendors.toList()) {
-            if (vendor.getName().toLowerCase().contains(query.toLowerCase()) || 
-                vendor.getDescription().toLowerCase().contains(query.toLowerCase())) {
-                searchResults.add(vendor);
-            }
+        // The index parses the OR syntax and the null query, with no pattern compiled per call
+        VendorCatalog current = catalog;
+        return resultsOrAll(current, current.search(query));
+    }
+    
+    /**
+     * Search vendors through the inverted index, requiring all (AND) or any (OR) of the words
+     */
+    public List<Vendor> searchVendors(String query, boolean matchAll) {
+        VendorCatalog current = catalog;
+        return resultsOrAll(current, current.search(query, matchAll));
+    }
+    
+    private static List<Vendor> resultsOrAll(VendorCatalog current, List<Vendor> searchResults) {
+        if (searchResults == null) {
+            // Nothing searchable in the query, so everything matches
+            return new ArrayList<>(current.getVendors());
         }
         
-        return searchResults.toList();
+        return searchResults;
     }
 }
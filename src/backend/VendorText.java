@@ -0,0 +1,65 @@
+package com.weddingvendor.backend;
+
+import java.text.Normalizer;
+
+/**
+ * Search form of vendor text: lowercased, accents removed (an accented "e" matches a plain
+ * one) and runs of whitespace collapsed to one space, trimmed. Vendors cache the normalized
+ * form of their searchable fields, so queries compare against it without allocating per
+ * vendor.
+ */
+public final class VendorText {
+    
+    private VendorText() {
+    }
+    
+    /**
+     * Normalized form of a text; null stays null. Text already in normal form is returned
+     * as it is.
+     */
+    public static String normalize(String text) {
+        if (text == null || isNormal(text)) {
+            return text;
+        }
+        
+        // Decompose accented letters so the accents become separate marks to drop
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); ) {
+            int codePoint = decomposed.codePointAt(i);
+            i += Character.charCount(codePoint);
+            int type = Character.getType(codePoint);
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.COMBINING_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.appendCodePoint(Character.toLowerCase(codePoint));
+        }
+        return normalized.toString();
+    }
+    
+    /**
+     * Whether a text is lowercase ASCII with single inner spaces only
+     */
+    private static boolean isNormal(String text) {
+        char previous = ' ';
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z') || (c != ' ' && Character.isWhitespace(c))
+                    || (c == ' ' && previous == ' ')) {
+                return false;
+            }
+            previous = c;
+        }
+        return previous != ' ' || text.isEmpty();
+    }
+}
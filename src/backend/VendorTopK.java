@@ -0,0 +1,119 @@
+package com.weddingvendor.backend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bounded-heap selection of the first k items of an order, for paged sorted results.
+ * Items are ordinals (catalog positions or list indexes) so the heap is a flat int array;
+ * the order must be total, with ties broken by ordinal to match a stable sort. Selecting
+ * k of n items costs O(n log k) instead of the O(n log n) of sorting all of them.
+ */
+public final class VendorTopK {
+    
+    /**
+     * Total order over ordinals; negative when a comes first
+     */
+    public interface OrdinalOrder {
+        int compare(int a, int b);
+    }
+    
+    private final OrdinalOrder order;
+    private final int[] heap;
+    private int size;
+    
+    public VendorTopK(OrdinalOrder order, int k) {
+        this.order = order;
+        this.heap = new int[Math.max(0, k)];
+    }
+    
+    /**
+     * Offer an ordinal; it is kept if it is among the first k seen so far
+     */
+    public void offer(int ordinal) {
+        if (size < heap.length) {
+            // Sift up in a max-heap: the root is the last of the kept ordinals
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (order.compare(heap[parent], ordinal) >= 0) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = ordinal;
+        } else if (size > 0 && order.compare(ordinal, heap[0]) < 0) {
+            siftDown(ordinal, size);
+        }
+    }
+    
+    /**
+     * The kept ordinals in order; the heap is consumed
+     */
+    public int[] drain() {
+        int[] result = new int[size];
+        for (int end = size - 1; end >= 0; end--) {
+            result[end] = heap[0];
+            siftDown(heap[end], end);
+        }
+        size = 0;
+        return result;
+    }
+    
+    /**
+     * The items from offset to offset + limit of a list in the comparator's order, ties kept
+     * in list order
+     */
+    public static <T> List<T> select(List<T> items, Comparator<? super T> comparator, int offset, int limit) {
+        int end = (int) Math.min((long) offset + limit, items.size());
+        List<T> page = new ArrayList<>(Math.max(0, end - offset));
+        if (offset >= end) {
+            return page;
+        }
+        if (comparator == null) {
+            for (int i = offset; i < end; i++) {
+                page.add(items.get(i));
+            }
+            return page;
+        }
+        
+        VendorTopK top = new VendorTopK((a, b) -> {
+            int result = comparator.compare(items.get(a), items.get(b));
+            return result != 0 ? result : Integer.compare(a, b);
+        }, end);
+        for (int i = 0; i < items.size(); i++) {
+            top.offer(i);
+        }
+        int[] ordinals = top.drain();
+        for (int i = offset; i < ordinals.length; i++) {
+            page.add(items.get(ordinals[i]));
+        }
+        return page;
+    }
+    
+    /**
+     * Put an ordinal at the root and sift it down within the first n slots
+     */
+    private void siftDown(int ordinal, int n) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(heap[child], ordinal) <= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (n > 0) {
+            heap[i] = ordinal;
+        }
+    }
+}
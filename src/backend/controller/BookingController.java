@@ -1,13 +1,21 @@
 
 package backend.controller;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import backend.BookingConflictException;
+import backend.BookingNdjson;
 import backend.model.Booking;
 import backend.service.BookingService;
 
@@ -18,18 +26,59 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
     
+    // optional from/to (yyyy-MM-dd) limit the result to a window of service dates,
+    // optional limit/cursor return one page in createdAt order instead of the whole list
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> allBookings = bookingService.getAllBookings();
+    public ResponseEntity<?> getAllBookings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        try {
+            if (isPaged(limit, cursor, from, to)) {
+                return ResponseEntity.ok(bookingService.getBookingsPage(cursor, limit));
+            }
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        List<Booking> allBookings = from != null || to != null
+            ? bookingService.getBookingsBetween(from, to)
+            : bookingService.getAllBookings();
         return ResponseEntity.ok(allBookings);
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Booking>> getUserBookings(@PathVariable String userId) {
-        List<Booking> userBookings = bookingService.getUserBookings(userId);
+    public ResponseEntity<?> getUserBookings(
+            @PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        try {
+            if (isPaged(limit, cursor, from, to)) {
+                return ResponseEntity.ok(bookingService.getUserBookingsPage(userId, cursor, limit));
+            }
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        List<Booking> userBookings = from != null || to != null
+            ? bookingService.getUserBookingsBetween(userId, from, to)
+            : bookingService.getUserBookings(userId);
         return ResponseEntity.ok(userBookings);
     }
     
+    @GetMapping("/export") // every booking as newline-delimited JSON, one per line
+    public void exportBookings(HttpServletResponse response) throws IOException {
+        response.setContentType(BookingNdjson.CONTENT_TYPE);
+        response.setCharacterEncoding("UTF-8");
+        bookingService.exportBookings(response.getWriter());
+    }
+    
+    @PostMapping("/import") // bulk import from a newline-delimited JSON body
+    public ResponseEntity<?> importBookings(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(bookingService.importBookings(request.getReader()));
+    }
+    
     @GetMapping("/{bookingId}")
     public ResponseEntity<?> getBookingById(@PathVariable String bookingId) {
         Booking booking = bookingService.getBookingById(bookingId);
@@ -42,15 +91,47 @@ public class BookingController {
     }
     
     @GetMapping("/vendor/{vendorId}") // get vendor bookings
-    public ResponseEntity<List<Booking>> getVendorBookings(@PathVariable String vendorId) {
+    public ResponseEntity<?> getVendorBookings(
+            @PathVariable String vendorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
         // Normalize vendor ID format if needed
         if (!vendorId.startsWith("vendor")) {
             vendorId = "vendor" + vendorId;
         }
-        List<Booking> vendorBookings = bookingService.getVendorBookings(vendorId);
+        try {
+            if (isPaged(limit, cursor, from, to)) {
+                return ResponseEntity.ok(bookingService.getVendorBookingsPage(vendorId, cursor, limit));
+            }
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        List<Booking> vendorBookings = from != null || to != null
+            ? bookingService.getVendorBookingsBetween(vendorId, from, to)
+            : bookingService.getVendorBookings(vendorId);
         return ResponseEntity.ok(vendorBookings);
     }
     
+    @GetMapping("/vendor/{vendorId}/availability") // free days of a vendor between from and to
+    public ResponseEntity<?> getVendorAvailability(
+            @PathVariable String vendorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        // Normalize vendor ID format if needed
+        if (!vendorId.startsWith("vendor")) {
+            vendorId = "vendor" + vendorId;
+        }
+        try {
+            List<String> freeDays = bookingService.getVendorAvailability(vendorId, from, to);
+            return ResponseEntity.ok(new AvailabilityResponse(vendorId, from.toString(), to.toString(), freeDays));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("Invalid availability range: " + e.getMessage()));
+        }
+    }
+    
     @PostMapping // aluth book ekke hadanna
     public ResponseEntity<?> createBooking(@RequestBody Booking booking) {
         // Normalize vendor ID format
@@ -58,9 +139,14 @@ public class BookingController {
             booking.setVendorId("vendor" + booking.getVendorId());
         }
         
-        String bookingId = bookingService.createBooking(booking); // aluth bookign ekek booking  service eke hadanwa
-        return ResponseEntity.status(HttpStatus.CREATED)
-            .body(new SuccessResponse("Booking created successfully", bookingId));
+        try {
+            String bookingId = bookingService.createBooking(booking); // aluth bookign ekek booking  service eke hadanwa
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new SuccessResponse("Booking created successfully", bookingId));
+        } catch (BookingConflictException e) { // vendor already booked that day
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(e.getMessage()));
+        }
     }
     
     @PutMapping("/{bookingId}") //updat the booking
@@ -69,7 +155,13 @@ public class BookingController {
             @RequestBody Booking updates) { //The bookingId is extracted from the URL, and the updated booking data is passed in the request body.
 
 
-        boolean updated = bookingService.updateBooking(bookingId, updates);
+        boolean updated;
+        try {
+            updated = bookingService.updateBooking(bookingId, updates);
+        } catch (BookingConflictException e) { // vendor already booked that day
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse(e.getMessage()));
+        }
         if (updated) {
             return ResponseEntity.ok(new SuccessResponse("Booking updated successfully", bookingId));
         } else {
@@ -89,6 +181,22 @@ public class BookingController {
         }
     }
     
+    /**
+     * Whether a list request asks for a page; pages and date windows use different orders
+     */
+    private static boolean isPaged(Integer limit, String cursor, LocalDate from, LocalDate to) {
+        boolean paged = limit != null || cursor != null;
+        if (paged && (from != null || to != null)) {
+            throw new IllegalArgumentException("limit/cursor cannot be combined with from/to");
+        }
+        return paged;
+    }
+    
+    private static ResponseEntity<?> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(new ErrorResponse("Invalid request: " + e.getMessage()));
+    }
+    
     // Response classes for JSON formatting
     static class SuccessResponse {
         private String message;
@@ -119,6 +227,36 @@ public class BookingController {
             return error;
         }
     }
+    
+    static class AvailabilityResponse {
+        private String vendorId;
+        private String from;
+        private String to;
+        private List<String> freeDays;
+        
+        public AvailabilityResponse(String vendorId, String from, String to, List<String> freeDays) {
+            this.vendorId = vendorId;
+            this.from = from;
+            this.to = to;
+            this.freeDays = freeDays;
+        }
+        
+        public String getVendorId() {
+            return vendorId;
+        }
+        
+        public String getFrom() {
+            return from;
+        }
+        
+        public String getTo() {
+            return to;
+        }
+        
+        public List<String> getFreeDays() {
+            return freeDays;
+        }
+    }
 }
 
 
@@ -2,12 +2,14 @@
 package backend.controller;
 
 import java.util.List; //For working with collections of vendors.
-import java.util.stream.Collectors; // Used for stream-based operations like filtering and collecting results from a list of vendors.
 
 import org.springframework.beans.factory.annotation.Autowired; // This allows the injection of dependencies
 import org.springframework.http.ResponseEntity; //Used to return HTTP responses with data and status codes.
 import org.springframework.web.bind.annotation.*; //Imports annotations used for RESTful API functionality
 
+import backend.VendorCatalog;
+import backend.VendorSearchCache;
+import backend.VendorSearchPlan;
 import backend.VendorSystem;
 import backend.model.Vendor; //The Vendor class represents a vendor entity with properties like name, category, location, rating, etc.
 
@@ -16,6 +18,9 @@ import backend.model.Vendor; //The Vendor class represents a vendor entity with
 public class VendorController {
     
     private final VendorSystem vendorSystem = new VendorSystem(); //Vendor System Initialization
+    // Result pages per catalog version, bounded to 1024 pages and 100k vendors in total
+    private final VendorSearchCache<List<Vendor>> cache =
+        new VendorSearchCache<>(1024, 100_000, List::size);
     
     @GetMapping("/search") //This handles GET
     public ResponseEntity<?> searchVendors(
@@ -24,17 +29,39 @@ public class VendorController {
             @RequestParam(required = false) String location, //The location of the vendor.
             @RequestParam(required = false) String priceRange, //The price range (in the format "min-max").
             @RequestParam(required = false) String sortBy, //Sorting criteria, such as by price or rating
-            @RequestParam(required = false) String minRating) { //Minimum rating to filter vendors
+            @RequestParam(required = false) String minRating, //Minimum rating to filter vendors
+            @RequestParam(required = false) Integer offset, //Number of sorted results to skip
+            @RequestParam(required = false) Integer limit) { //Maximum number of results to return
+        
+        int first = offset != null ? offset : 0;
+        int count = limit != null ? limit : Integer.MAX_VALUE;
+        if (first < 0 || count < 1) {
+            return ResponseEntity.badRequest()
+                .body(new ErrorResponse("offset must be at least 0 and limit at least 1"));
+        }
         
         try {
-            // Get all vendors as base list
-            List<Vendor> results = vendorSystem.getAllVendors();
+            // Same normalized parameters as the servlet, so equivalent searches share a page
+            query = trim(query);
+            category = trim(category);
+            location = trim(location);
+            priceRange = trim(priceRange);
+            minRating = trim(minRating);
+            sortBy = trim(sortBy);
             
-            // Apply filters
-            results = applyFilters(results, query, category, location, priceRange, minRating);
+            // Serve a cached page while the catalog version is unchanged
+            VendorCatalog catalog = vendorSystem.getCatalog();
+            VendorSearchPlan plan = VendorSearchPlan.compile(query, category, location, priceRange, minRating);
+            String key = plan.cacheKey(sortBy, first, count, false);
+            List<Vendor> results = cache.get(key, catalog.getVersion());
+            if (results != null) {
+                return ResponseEntity.ok(results);
+            }
             
-            // Apply sorting
-            results = applySorting(results, sortBy);
+            // Filter and sort the same catalog version the page is cached under, in one pass
+            // over the vendors' cached normalized text, exactly as the servlet does
+            results = plan.execute(catalog, sortBy, first, count).getVendors();
+            cache.put(key, catalog.getVersion(), results);
             
             // Return results
             return ResponseEntity.ok(results);
@@ -45,100 +72,22 @@ public class VendorController {
     }
     
     /**
-     * Apply all filters to the vendor list
-     */
-    private List<Vendor> applyFilters(List<Vendor> vendors, String query, String category, 
-                                     String location, String priceRange, String minRatingStr) {
-        List<Vendor> filtered = vendors;
-        
-        // Filter by search query (name or description)
-        if (query != null && !query.isEmpty()) {
-            String lowercaseQuery = query.toLowerCase();
-            filtered = filtered.stream()
-                .filter(v -> v.getName().toLowerCase().contains(lowercaseQuery) || 
-                         (v.getDescription() != null && v.getDescription().toLowerCase().contains(lowercaseQuery)))
-                .collect(Collectors.toList());
-        }
-        
-        // Filter by category
-        if (category != null && !category.isEmpty() && !category.equalsIgnoreCase("all")) {
-            filtered = filtered.stream()
-                .filter(v -> v.getCategory().equalsIgnoreCase(category))
-                .collect(Collectors.toList());
-        }
-        
-        // Filter by location (note: this might need adjustment since the model may not have a location field)
-        if (location != null && !location.isEmpty() && !location.equalsIgnoreCase("all")) {
-            // We would need to adjust this if Vendor doesn't have a getLocation method
-            // This is just a placeholder for the concept
-        }
-        
-        // Filter by price range
-        if (priceRange != null && !priceRange.isEmpty()) {
-            filtered = filterByPriceRange(filtered, priceRange);
-        }
-        
-        // Filter by minimum rating
-        if (minRatingStr != null && !minRatingStr.isEmpty()) {
-            try {
-                double minRating = Double.parseDouble(minRatingStr);
-                filtered = filtered.stream()
-                    .filter(v -> v.getRating() >= minRating)
-                    .collect(Collectors.toList());
-            } catch (NumberFormatException e) {
-                // Ignore invalid rating parameter
-            }
-        }
-        
-        return filtered;
-    }
-    
-    /**
-     * Filter vendors by price range
+     * Search result cache statistics
      */
-    private List<Vendor> filterByPriceRange(List<Vendor> vendors, String priceRange) {
-        // Parse price range format: min-max (e.g., "100-500")
-        try {
-            String[] range = priceRange.split("-");
-            if (range.length == 2) {
-                int minPrice = Integer.parseInt(range[0]);
-                int maxPrice = Integer.parseInt(range[1]);
-                
-                // We would need to adjust this if Vendor doesn't have getMinPrice and getMaxPrice methods
-                // This is just a placeholder for the concept
-                return vendors;
-            }
-        } catch (Exception e) {
-            // Ignore invalid price range parameter
-        }
-        
-        return vendors;
+    @GetMapping("/search/stats")
+    public ResponseEntity<VendorSearchCache.Stats> getSearchStats() {
+        return ResponseEntity.ok(cache.getStats());
     }
     
     /**
-     * Apply sorting to the vendor list
+     * Trimmed parameter; null when absent or blank
      */
-    private List<Vendor> applySorting(List<Vendor> vendors, String sortBy) {
-        if (sortBy != null) {
-            switch (sortBy) {
-                case "priceAsc":
-                    // We would need to adjust this if Vendor doesn't have getMinPrice method
-                    break;
-                case "priceDesc":
-                    // We would need to adjust this if Vendor doesn't have getMinPrice method
-                    break;
-                case "rating":
-                    vendors.sort((a, b) -> Double.compare(b.getRating(), a.getRating()));
-                    break;
-                case "reviewCount":
-                    // We would need to adjust this if Vendor doesn't have getReviewCount method
-                    break;
-                default:
-                    // Default, no sorting changes
-            }
+    private static String trim(String parameter) {
+        if (parameter == null) {
+            return null;
         }
-        
-        return vendors;
+        String trimmed = parameter.trim();
+        return trimmed.isEmpty() ? null : trimmed;
     }
     
     /**
@@ -1,10 +1,16 @@
 
 package backend.service;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import backend.BookingNdjson;
+import backend.BookingPage;
 import backend.BookingSystem;
 import backend.model.Booking;
 
@@ -21,6 +27,30 @@ public class BookingService {
         return bookingSystem.getUserBookings(userId);
     }
     
+    public BookingPage getBookingsPage(String cursor, Integer limit) {
+        return bookingSystem.getBookingsPage(cursor, limit);
+    }
+    
+    public BookingPage getUserBookingsPage(String userId, String cursor, Integer limit) {
+        return bookingSystem.getUserBookingsPage(userId, cursor, limit);
+    }
+    
+    public BookingPage getVendorBookingsPage(String vendorId, String cursor, Integer limit) {
+        return bookingSystem.getVendorBookingsPage(vendorId, cursor, limit);
+    }
+    
+    public List<Booking> getBookingsBetween(LocalDate from, LocalDate to) {
+        return bookingSystem.getBookingsBetween(from, to);
+    }
+    
+    public List<Booking> getUserBookingsBetween(String userId, LocalDate from, LocalDate to) {
+        return bookingSystem.getUserBookingsBetween(userId, from, to);
+    }
+    
+    public List<Booking> getVendorBookingsBetween(String vendorId, LocalDate from, LocalDate to) {
+        return bookingSystem.getVendorBookingsBetween(vendorId, from, to);
+    }
+    
     public Booking getBookingById(String bookingId) {
         return bookingSystem.getBookingById(bookingId);
     }
@@ -29,6 +59,10 @@ public class BookingService {
         return bookingSystem.getVendorBookings(vendorId);
     }
     
+    public List<String> getVendorAvailability(String vendorId, LocalDate from, LocalDate to) {
+        return bookingSystem.getVendorAvailability(vendorId, from, to);
+    }
+    
     public String createBooking(Booking booking) {
         return bookingSystem.createBooking(booking);
     }
@@ -40,4 +74,12 @@ public class BookingService {
     public boolean deleteBooking(String bookingId) {
         return bookingSystem.deleteBooking(bookingId);
     }
+    
+    public BookingNdjson.Result importBookings(Reader ndjson) throws IOException {
+        return BookingNdjson.importFrom(ndjson, bookingSystem);
+    }
+    
+    public int exportBookings(Writer out) throws IOException {
+        return BookingNdjson.exportTo(out, bookingSystem);
+    }
 }
@@ -0,0 +1,141 @@
+package com.weddingvendor.backend.benchmark;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Random;
+
+import com.weddingvendor.backend.Booking;
+
+/**
+ * Heap footprint per booking: retained bytes of the compact Booking against the
+ * previous all-String layout, filled with the same synthetic bookings. Every string is
+ * a fresh copy, as it would be after parsing a request or a journal record.
+ *
+ * java -cp target/benchmarks.jar com.weddingvendor.backend.benchmark.BookingFootprint [count]
+ */
+public class BookingFootprint {
+    private static final String[] STATUSES = {"pending", "confirmed", "completed", "cancelled"};
+    private static final String[] PAYMENT_STATUSES = {"pending", "paid", "unpaid"};
+    private static final String[] EVENT_TYPES = {"Wedding", "Engagement", "Reception"};
+    private static final String[] SERVICES = {
+        "Premium Wedding Photography", "Full Day Venue Rental", "Engagement Photoshoot",
+        "Buffet Catering", "Bridal Bouquet", "Live Band", "Day-of Coordination"
+    };
+    private static final int VENDORS = 5000;
+    private static final int USERS = 50000;
+    
+    /**
+     * The booking layout before compaction: every field a String of its own
+     */
+    static final class StringBooking {
+        String id;
+        String userId;
+        String userName;
+        String vendorId;
+        String vendorName;
+        String serviceName;
+        String eventType;
+        String serviceDate;
+        double amount;
+        String status;
+        String paymentStatus;
+        String notes;
+        String createdAt;
+        String updatedAt;
+    }
+    
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        
+        long before = usedHeap();
+        Object[] strings = new Object[count];
+        Random random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            String[] fields = fields(random, i);
+            StringBooking booking = new StringBooking();
+            booking.id = fields[0];
+            booking.userId = fields[1];
+            booking.userName = fields[2];
+            booking.vendorId = fields[3];
+            booking.vendorName = fields[4];
+            booking.serviceName = fields[5];
+            booking.eventType = fields[6];
+            booking.serviceDate = fields[7];
+            booking.amount = 100 * (1 + random.nextInt(100));
+            booking.status = fields[8];
+            booking.paymentStatus = fields[9];
+            booking.createdAt = fields[10];
+            booking.updatedAt = fields[11];
+            strings[i] = booking;
+        }
+        long stringBytes = usedHeap() - before;
+        strings = null;
+        
+        before = usedHeap();
+        Object[] compact = new Object[count];
+        random = new Random(42);
+        for (int i = 0; i < count; i++) {
+            String[] fields = fields(random, i);
+            Booking booking = new Booking();
+            booking.setId(fields[0]);
+            booking.setUserId(fields[1]);
+            booking.setUserName(fields[2]);
+            booking.setVendorId(fields[3]);
+            booking.setVendorName(fields[4]);
+            booking.setServiceName(fields[5]);
+            booking.setEventType(fields[6]);
+            booking.setServiceDate(fields[7]);
+            booking.setAmount(100 * (1 + random.nextInt(100)));
+            booking.setStatus(fields[8]);
+            booking.setPaymentStatus(fields[9]);
+            booking.setCreatedAt(fields[10]);
+            booking.setUpdatedAt(fields[11]);
+            compact[i] = booking;
+        }
+        long compactBytes = usedHeap() - before;
+        
+        System.out.printf("bookings:           %d%n", compact.length);
+        System.out.printf("String layout:      %d bytes/booking%n", stringBytes / count);
+        System.out.printf("compact layout:     %d bytes/booking%n", compactBytes / count);
+        System.out.printf("reduction:          %.1f%%%n", 100.0 * (stringBytes - compactBytes) / stringBytes);
+    }
+    
+    /**
+     * Fresh string copies of one synthetic booking's fields
+     */
+    private static String[] fields(Random random, int i) {
+        int vendor = random.nextInt(VENDORS);
+        int user = random.nextInt(USERS);
+        long created = 1_672_531_200_000L + random.nextInt(365 * 24 * 3600) * 1000L + random.nextInt(1000);
+        String createdAt = Instant.ofEpochMilli(created).toString();
+        if (createdAt.length() == 20) {
+            createdAt = createdAt.substring(0, 19) + ".000Z";
+        }
+        return new String[] {
+            "booking" + Integer.toHexString(0x10000000 + i),
+            "user" + user,
+            copy("Client " + user),
+            "vendor" + vendor,
+            copy("Vendor Studio " + vendor),
+            copy(SERVICES[vendor % SERVICES.length]),
+            copy(EVENT_TYPES[random.nextInt(EVENT_TYPES.length)]),
+            LocalDate.of(2024, 1, 1).plusDays(random.nextInt(730)).toString(),
+            copy(STATUSES[random.nextInt(STATUSES.length)]),
+            copy(PAYMENT_STATUSES[random.nextInt(PAYMENT_STATUSES.length)]),
+            createdAt,
+            copy(createdAt)
+        };
+    }
+    
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
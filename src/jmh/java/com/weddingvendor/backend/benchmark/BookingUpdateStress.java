@@ -0,0 +1,158 @@
+package com.weddingvendor.backend.benchmark;
+
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.weddingvendor.backend.Booking;
+import com.weddingvendor.backend.BookingConflictException;
+import com.weddingvendor.backend.BookingSystem;
+
+/**
+ * Concurrency stress check for booking updates: writer threads keep moving bookings
+ * between vendors and days while reader threads read them without locks. Every update
+ * sets amount and notes to the same number, so a reader seeing them disagree has caught
+ * a half-applied update; a booking missing from the id map or the createdAt index has
+ * caught an index update that removed before it added. Each writer owns a disjoint set
+ * of bookings and remembers the last update it applied to each, so after the run every
+ * booking must hold exactly that update; anything else is a lost update. Runs against a
+ * fresh data directory and exits non-zero on any violation.
+ *
+ * java -cp target/benchmarks.jar com.weddingvendor.backend.benchmark.BookingUpdateStress [seconds] [bookings]
+ */
+public class BookingUpdateStress {
+    private static final int VENDORS = 50;
+    private static final int WRITERS = 32;
+    private static final int READERS = 4;
+    
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        System.setProperty("weddingvendor.data.dir", Files.createTempDirectory("booking-stress").toString());
+        
+        BookingSystem system = new BookingSystem();
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            Booking booking = new Booking();
+            booking.setId("stress" + i);
+            booking.setUserId("user" + (i % 100));
+            booking.setVendorId("vendor" + (i % VENDORS));
+            booking.setServiceDate(LocalDate.of(2030, 1, 1).plusDays(i).toString());
+            booking.setStatus("confirmed");
+            booking.setAmount(1);
+            booking.setNotes("1");
+            ids[i] = system.createBooking(booking);
+        }
+        int expected = system.getAllBookings().size();
+        
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong updates = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+        AtomicLong violations = new AtomicLong();
+        
+        // Last update applied to each booking; slot i is written only by writer i % WRITERS
+        Booking[] applied = new Booking[count];
+        
+        Thread[] threads = new Thread[WRITERS + READERS];
+        for (int t = 0; t < WRITERS; t++) {
+            int writer = t;
+            threads[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int owned = (count - writer + WRITERS - 1) / WRITERS;
+                while (running.get() && owned > 0) {
+                    int i = writer + WRITERS * random.nextInt(owned);
+                    int value = 2 + random.nextInt(1_000_000);
+                    Booking changes = new Booking();
+                    changes.setVendorId("vendor" + random.nextInt(VENDORS));
+                    changes.setServiceDate(LocalDate.of(2030, 1, 1).plusDays(random.nextInt(36_500)).toString());
+                    changes.setAmount(value);
+                    changes.setNotes(Integer.toString(value));
+                    try {
+                        if (system.updateBooking(ids[i], changes)) {
+                            applied[i] = changes;
+                            updates.incrementAndGet();
+                        } else {
+                            report(violations, "update found no booking " + ids[i]);
+                        }
+                    } catch (BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            }, "stress-writer-" + t);
+        }
+        for (int t = WRITERS; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    Booking booking = system.getBookingById(ids[random.nextInt(count)]);
+                    if (booking == null) {
+                        report(violations, "booking missing from the id map");
+                    } else if (booking.getAmount() != Double.parseDouble(booking.getNotes())) {
+                        report(violations, "half-applied update: amount " + booking.getAmount() + ", notes " + booking.getNotes());
+                    } else if (system.getVendorBookings(booking.getVendorId()).isEmpty()) {
+                        report(violations, "vendor bucket empty for " + booking.getVendorId());
+                    }
+                    if (random.nextInt(100) == 0) {
+                        List<Booking> all = system.getAllBookings();
+                        if (all.size() != expected) {
+                            report(violations, "createdAt index holds " + all.size() + " bookings, expected " + expected);
+                        }
+                    }
+                    reads.incrementAndGet();
+                }
+            }, "stress-reader-" + t);
+        }
+        
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        // Every booking must hold the last update its writer applied (join publishes them)
+        for (int i = 0; i < count; i++) {
+            Booking expectedState = applied[i];
+            if (expectedState == null) {
+                continue;
+            }
+            Booking booking = system.getBookingById(ids[i]);
+            if (booking == null) {
+                report(violations, "booking " + ids[i] + " missing after the run");
+            } else if (booking.getAmount() != expectedState.getAmount()
+                    || !Objects.equals(booking.getNotes(), expectedState.getNotes())
+                    || !Objects.equals(booking.getVendorId(), expectedState.getVendorId())
+                    || !Objects.equals(booking.getServiceDate(), expectedState.getServiceDate())) {
+                report(violations, "lost update on " + ids[i] + ": expected amount " + expectedState.getAmount()
+                    + " at " + expectedState.getVendorId() + " on " + expectedState.getServiceDate()
+                    + ", found amount " + booking.getAmount() + " at " + booking.getVendorId() + " on " + booking.getServiceDate());
+            } else if (!system.getVendorBookings(booking.getVendorId()).contains(booking)) {
+                report(violations, "booking " + ids[i] + " missing from the bucket of " + booking.getVendorId());
+            }
+        }
+        if (system.getAllBookings().size() != expected) {
+            report(violations, "createdAt index holds " + system.getAllBookings().size() + " bookings after the run, expected " + expected);
+        }
+        
+        System.out.printf("updates:     %d (%d rejected as conflicts)%n", updates.get(), conflicts.get());
+        System.out.printf("reads:       %d%n", reads.get());
+        System.out.printf("violations:  %d%n", violations.get());
+        if (violations.get() > 0) {
+            System.exit(1);
+        }
+    }
+    
+    private static void report(AtomicLong violations, String message) {
+        // Print the first few; the count tells the rest
+        if (violations.incrementAndGet() <= 10) {
+            System.err.println(message);
+        }
+    }
+}
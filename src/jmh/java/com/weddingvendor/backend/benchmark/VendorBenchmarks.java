@@ -0,0 +1,28 @@
+package com.weddingvendor.backend.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Runs the JMH benchmarks with the GC profiler
+ * attached so every result also reports allocation rate; any standard JMH command
+ * line option (e.g. a benchmark regex or -p size=1000) is passed through.
+ *
+ * mvn -P benchmarks package
+ * java -jar target/benchmarks.jar [jmh options]
+ */
+public class VendorBenchmarks {
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.weddingvendor.backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.weddingvendor.backend.Service;
+import com.weddingvendor.backend.Vendor;
+
+/**
+ * Builds synthetic vendor catalogs with a skewed, roughly realistic mix of
+ * categories and locations so index and filter benchmarks see real bucket sizes
+ */
+public final class VendorCatalogGenerator {
+    // Categories and locations with relative weights (photographers and big cities dominate)
+    private static final String[] CATEGORIES = {
+        "Photographer", "Venue", "Caterer", "Florist", "Entertainment", "Planner",
+        "Videographer", "Baker", "Makeup Artist", "Officiant", "Rentals", "Transportation"
+    };
+    private static final int[] CATEGORY_WEIGHTS = {22, 15, 14, 10, 9, 7, 6, 5, 5, 3, 2, 2};
+    
+    private static final String[] LOCATIONS = {
+        "New York, NY", "Los Angeles, CA", "Chicago, IL", "Houston, TX", "Miami, FL",
+        "Seattle, WA", "Austin, TX", "Boston, MA", "Denver, CO", "Atlanta, GA",
+        "San Diego, CA", "Nashville, TN", "Portland, OR", "Phoenix, AZ", "Charleston, SC"
+    };
+    private static final int[] LOCATION_WEIGHTS = {18, 15, 11, 8, 8, 6, 6, 5, 5, 5, 4, 3, 2, 2, 2};
+    
+    private static final String[] ADJECTIVES = {
+        "Elegant", "Royal", "Divine", "Blooming", "Harmony", "Dream", "Golden", "Timeless",
+        "Rustic", "Modern", "Classic", "Enchanted", "Coastal", "Velvet", "Silver", "Evergreen"
+    };
+    private static final String[] NOUNS = {
+        "Moments", "Garden", "Cuisine", "Beauty", "Studio", "Events", "Celebrations", "Affairs",
+        "Designs", "Creations", "Occasions", "Memories", "Vows", "Petals", "Table", "Lens"
+    };
+    private static final String[] DESCRIPTION_WORDS = {
+        "wedding", "candid", "luxury", "outdoor", "indoor", "custom", "gourmet", "floral",
+        "live", "music", "planning", "coordination", "destination", "intimate", "vintage",
+        "photography", "video", "catering", "decor", "bridal", "reception", "ceremony"
+    };
+    
+    private VendorCatalogGenerator() {
+    }
+    
+    /**
+     * Generate a catalog of the given size; the same seed always yields the same catalog
+     */
+    public static List<Vendor> generate(int size, long seed) {
+        Random random = new Random(seed);
+        List<Vendor> vendors = new ArrayList<>(size);
+        
+        for (int i = 0; i < size; i++) {
+            String category = pick(random, CATEGORIES, CATEGORY_WEIGHTS);
+            double minPrice = 50 + random.nextInt(200) * 50;
+            double maxPrice = minPrice + 500 + random.nextInt(100) * 100;
+            double rating = Math.round((3.0 + random.nextDouble() * 2.0) * 10) / 10.0;
+            
+            Vendor vendor = new Vendor(
+                "vendor" + i,
+                pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + category + " " + i,
+                category,
+                rating,
+                random.nextInt(500),
+                "https://images.example.com/vendor" + i + ".jpg",
+                minPrice,
+                maxPrice,
+                pick(random, LOCATIONS, LOCATION_WEIGHTS),
+                description(random)
+            );
+            
+            int services = random.nextInt(4);
+            for (int s = 0; s < services; s++) {
+                vendor.addService(new Service("pkg" + s, pick(random, ADJECTIVES) + " " + category + " Package",
+                    category, description(random), minPrice + s * 500, (4 + s * 2) + " hours"));
+            }
+            vendors.add(vendor);
+        }
+        
+        return vendors;
+    }
+    
+    private static String description(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 8 + random.nextInt(12);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            text.append(pick(random, DESCRIPTION_WORDS));
+        }
+        return text.toString();
+    }
+    
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+    
+    private static String pick(Random random, String[] values, int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < values.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+}
@@ -0,0 +1,124 @@
+package com.weddingvendor.backend.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weddingvendor.backend.Vendor;
+import com.weddingvendor.backend.VendorLinkedList;
+
+/**
+ * Hot paths of the custom vendor linked list: append, id lookup, id removal and sorting
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class VendorLinkedListBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+    
+    private List<Vendor> catalog;
+    private VendorLinkedList list;
+    private Vendor extra;
+    private String[] ids;
+    private int cursor;
+    
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        catalog = VendorCatalogGenerator.generate(size, 42L);
+        list = new VendorLinkedList();
+        for (Vendor vendor : catalog) {
+            list.add(vendor);
+        }
+        
+        // Random probe order so lookups do not walk the list in insertion order
+        ids = new String[Integer.highestOneBit(Math.min(size, 1 << 16))];
+        Random random = new Random(7L);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = catalog.get(random.nextInt(size)).getId();
+        }
+        extra = VendorCatalogGenerator.generate(1, 99L).get(0);
+        extra.setId("vendor-extra");
+    }
+    
+    /**
+     * Input for the sort benchmarks: every sort starts from a freshly shuffled list
+     */
+    @State(Scope.Thread)
+    public static class SortInput {
+        private int round;
+        VendorLinkedList list;
+        
+        @Setup(Level.Invocation)
+        public void shuffle(VendorLinkedListBenchmark benchmark) {
+            List<Vendor> shuffled = new ArrayList<>(benchmark.catalog);
+            Collections.shuffle(shuffled, new Random(round++));
+            list = new VendorLinkedList();
+            for (Vendor vendor : shuffled) {
+                list.add(vendor);
+            }
+        }
+    }
+    
+    private String nextId() {
+        cursor = (cursor + 1) & (ids.length - 1);
+        return ids[cursor];
+    }
+    
+    @Benchmark
+    public boolean addThenRemove() {
+        list.add(extra);
+        return list.removeById(extra.getId());
+    }
+    
+    @Benchmark
+    public Vendor getById() {
+        return list.getById(nextId());
+    }
+    
+    @Benchmark
+    public boolean removeByIdThenReAdd() {
+        String id = nextId();
+        Vendor vendor = list.getById(id);
+        boolean removed = list.removeById(id);
+        list.add(vendor);
+        return removed;
+    }
+    
+    @Benchmark
+    public VendorLinkedList sortByPrice(SortInput input) {
+        input.list.bubbleSortByPrice();
+        return input.list;
+    }
+    
+    @Benchmark
+    public VendorLinkedList sortByRating(SortInput input) {
+        input.list.bubbleSortByRating();
+        return input.list;
+    }
+    
+    @Benchmark
+    public VendorLinkedList sortByRatingThenReviews(SortInput input) {
+        input.list.sort(VendorLinkedList.RATING_DESC.thenComparing(VendorLinkedList.REVIEW_COUNT_DESC));
+        return input.list;
+    }
+}
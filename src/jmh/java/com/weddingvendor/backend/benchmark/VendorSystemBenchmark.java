@@ -0,0 +1,100 @@
+package com.weddingvendor.backend.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.weddingvendor.backend.Vendor;
+import com.weddingvendor.backend.VendorSnapshot;
+import com.weddingvendor.backend.VendorSystem;
+
+/**
+ * Read paths of VendorSystem against a synthetic catalog. Each fork seeds its own
+ * temporary data directory with a snapshot, so nothing touches the real data/ folder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class VendorSystemBenchmark {
+    private static final String[] QUERIES = {"wedding", "candid photography", "gourmet catering", "elegant studio"};
+    private static final String[] CATEGORIES = {"Photographer", "Venue", "Florist", "Officiant"};
+    
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+    
+    private VendorSystem vendorSystem;
+    private String[] ids;
+    private int cursor;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File dataDir = Files.createTempDirectory("vendor-bench").toFile();
+        dataDir.deleteOnExit();
+        List<Vendor> catalog = VendorCatalogGenerator.generate(size, 42L);
+        VendorSnapshot.write(new File(dataDir, "vendors.snapshot"), catalog);
+        
+        // Must be set before VendorSystem is first loaded in this fork
+        System.setProperty("weddingvendor.data.dir", dataDir.getAbsolutePath());
+        vendorSystem = new VendorSystem();
+        
+        ids = new String[1 << 12];
+        Random random = new Random(7L);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = "vendor" + random.nextInt(size);
+        }
+    }
+    
+    private int next() {
+        cursor = (cursor + 1) & (ids.length - 1);
+        return cursor;
+    }
+    
+    @Benchmark
+    public Vendor getVendorById() {
+        return vendorSystem.getVendorById(ids[next()]);
+    }
+    
+    @Benchmark
+    public List<Vendor> searchVendors() {
+        return vendorSystem.searchVendors(QUERIES[next() & (QUERIES.length - 1)]);
+    }
+    
+    @Benchmark
+    public List<Vendor> getVendorsByCategory() {
+        return vendorSystem.getVendorsByCategory(CATEGORIES[next() & (CATEGORIES.length - 1)]);
+    }
+    
+    @Benchmark
+    public List<Vendor> getVendorsByLocation() {
+        return vendorSystem.getVendorsByLocation("TX");
+    }
+    
+    @Benchmark
+    public List<Vendor> firstPageSortedByPrice() {
+        return vendorSystem.getVendorsSortedByPrice(0, 20);
+    }
+    
+    @Benchmark
+    public List<Vendor> firstPageSortedByRating() {
+        return vendorSystem.getVendorsSortedByRating(0, 20);
+    }
+}